@@ -0,0 +1,48 @@
+package com.voltcheck.app;
+
+import com.voltcheck.app.utils.BatterySnapshot;
+
+/**
+ * Satu sample hasil akuisisi SamplingEngine (immutable)
+ */
+public final class BatterySample {
+
+    public final long timestamp;        // epoch millis
+    public final long elapsedNanos;     // SystemClock.elapsedRealtimeNanos saat tick
+    public final float current;         // mA, nilai absolut
+    public final float currentSmoothed; // mA, rata-rata beberapa sample terakhir
+    public final BatterySnapshot snapshot;
+
+    public BatterySample(long timestamp, long elapsedNanos, float current, float currentSmoothed,
+                         BatterySnapshot snapshot) {
+        this.timestamp = timestamp;
+        this.elapsedNanos = elapsedNanos;
+        this.current = current;
+        this.currentSmoothed = currentSmoothed;
+        this.snapshot = snapshot;
+    }
+
+    public float getVoltage() {
+        return snapshot.voltage;
+    }
+
+    public float getTemperature() {
+        return snapshot.temperature;
+    }
+
+    public int getLevel() {
+        return snapshot.level;
+    }
+
+    public boolean isCharging() {
+        return snapshot.isCharging();
+    }
+
+    /**
+     * Arus dengan tanda: positif saat charging, negatif saat discharging
+     */
+    public float getSignedCurrent(boolean smoothed) {
+        float value = smoothed ? currentSmoothed : current;
+        return isCharging() ? value : -value;
+    }
+}
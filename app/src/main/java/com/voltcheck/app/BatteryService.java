@@ -3,12 +3,9 @@ package com.voltcheck.app;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
-import android.content.IntentFilter;
 import android.content.SharedPreferences;
-import android.os.BatteryManager;
-import android.os.Handler;
+import android.os.Binder;
 import android.os.IBinder;
-import android.os.Looper;
 import android.os.Build;
 import android.util.Log;
 import android.media.MediaPlayer;
@@ -17,12 +14,11 @@ import android.net.Uri;
 
 import androidx.annotation.Nullable;
 
+import com.voltcheck.app.utils.BatteryDataLogger;
 import com.voltcheck.app.utils.NotificationUtil;
+import com.voltcheck.app.utils.WindowedStats;
 import com.voltcheck.app.SettingsActivity;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Foreground Service untuk monitoring baterai di background
  */
@@ -31,13 +27,20 @@ public class BatteryService extends Service {
     private static final String TAG = "BatteryService";
     private static final long MONITORING_INTERVAL = 2000; // 2 detik
     private static final int STABILITY_SAMPLE_SIZE = 10; // Sample untuk cek stabilitas
+    private static final long MIN_SUMMARY_DURATION = 60000; // Sesi di bawah 1 menit tidak diringkas
     
-    private Handler handler;
-    private Runnable monitoringRunnable;
-    private BatteryManager batteryManager;
     private SharedPreferences preferences;
+    private SamplingEngine samplingEngine;
+    private final IBinder binder = new LocalBinder();
+    
+    // Dipanggil di thread sampling engine, semua state alert hanya disentuh dari thread itu
+    private final SamplingEngine.Listener engineListener = batch -> {
+        for (BatterySample sample : batch) {
+            checkBatteryStatus(sample);
+        }
+    };
     
-    private List<Float> recentCurrentSamples = new ArrayList<>();
+    private final WindowedStats recentCurrentStats = new WindowedStats(STABILITY_SAMPLE_SIZE);
     private long lastLowCurrentAlert = 0;
     private long lastHighTempAlert = 0;
     private long lastUnstableAlert = 0;
@@ -65,9 +68,8 @@ public class BatteryService extends Service {
         super.onCreate();
         Log.d(TAG, "Service created");
         
-        batteryManager = (BatteryManager) getSystemService(Context.BATTERY_SERVICE);
         preferences = getSharedPreferences("VoltCheckSettings", MODE_PRIVATE);
-        handler = new Handler(Looper.getMainLooper());
+        samplingEngine = new SamplingEngine(this);
         
         // Buat notification channels
         NotificationUtil.createNotificationChannels(this);
@@ -101,6 +103,8 @@ public class BatteryService extends Service {
         super.onDestroy();
         Log.d(TAG, "Service destroyed");
         stopMonitoring();
+        samplingEngine.shutdown();
+        BatteryDataLogger.flush(this);
         try {
             unregisterReceiver(stopAlarmReceiver);
         } catch (Exception e) {}
@@ -109,44 +113,45 @@ public class BatteryService extends Service {
     @Nullable
     @Override
     public IBinder onBind(Intent intent) {
-        return null; // Unbound service
+        return binder;
+    }
+    
+    /**
+     * Binder lokal agar MainActivity berlangganan ke engine yang sama
+     */
+    public class LocalBinder extends Binder {
+        public SamplingEngine getEngine() {
+            return samplingEngine;
+        }
     }
     
     /**
      * Memulai monitoring periodik
      */
     private void startMonitoring() {
-        long interval = SettingsActivity.getRefreshInterval(this);
-        monitoringRunnable = new Runnable() {
-            @Override
-            public void run() {
-                checkBatteryStatus();
-                handler.postDelayed(this, interval);
-            }
-        };
-        handler.post(monitoringRunnable);
+        // Interval adaptif: cepat saat mendekati kondisi alert, lambat saat stabil atau layar mati
+        samplingEngine.subscribe(engineListener, 0, true);
     }
     
     /**
      * Menghentikan monitoring
      */
     private void stopMonitoring() {
-        if (handler != null && monitoringRunnable != null) {
-            handler.removeCallbacks(monitoringRunnable);
+        if (samplingEngine != null) {
+            samplingEngine.unsubscribe(engineListener);
         }
     }
     
     /**
      * Memeriksa status baterai dan threshold
      */
-    private void checkBatteryStatus() {
+    private void checkBatteryStatus(BatterySample sample) {
         try {
-            // Baca data baterai
-            float current = getCurrentNow();
-            float voltage = getVoltageNow();
-            float temperature = getTemperature();
-            boolean isCharging = isCharging();
-            int level = getBatteryLevel();
+            float current = sample.current;
+            float voltage = sample.getVoltage();
+            float temperature = sample.getTemperature();
+            boolean isCharging = sample.isCharging();
+            int level = sample.getLevel();
             
             // Format current dengan tanda yang benar
             // Positif saat charging, negatif saat discharging
@@ -166,6 +171,9 @@ public class BatteryService extends Service {
                 // Just plugged in
                 if (level >= 80) hasAlmostFullPlayed = true;
                 if (level >= preferences.getInt("alarm_level", 100)) hasAlarmPlayed = true;
+            } else if (!isCharging && wasCharging) {
+                // Just unplugged
+                sendSessionSummary();
             }
             wasCharging = isCharging;
             
@@ -184,6 +192,21 @@ public class BatteryService extends Service {
         }
     }
     
+    /**
+     * Kirim ringkasan sesi charging yang baru ditutup. Sesi dan agregatnya (ringkasan inkremental
+     * RollupWriter) diambil dari logger, sehingga notifikasi sama dengan baris di History.
+     */
+    private void sendSessionSummary() {
+        if (!preferences.getBoolean("session_summary", false)) {
+            return;
+        }
+        BatteryDataLogger.loadLatestChargingSession(this, session -> {
+            if (session != null && session.getDurationMillis() >= MIN_SUMMARY_DURATION) {
+                NotificationUtil.sendChargingSessionSummary(this, session);
+            }
+        });
+    }
+    
     /**
      * Memeriksa threshold dan kirim alert jika perlu
      */
@@ -230,12 +253,9 @@ public class BatteryService extends Service {
         }
         
         // Cek stabilitas charging
-        recentCurrentSamples.add(current);
-        if (recentCurrentSamples.size() > STABILITY_SAMPLE_SIZE) {
-            recentCurrentSamples.remove(0);
-        }
+        recentCurrentStats.push(current);
         
-        if (recentCurrentSamples.size() >= STABILITY_SAMPLE_SIZE) {
+        if (recentCurrentStats.isFull()) {
             if (isChargingUnstable()) {
                 boolean alertEnabled = preferences.getBoolean("alert_fast_charging", true);
                 if (alertEnabled && current > 2000 && currentTime - lastUnstableAlert > ALERT_COOLDOWN) {
@@ -250,26 +270,12 @@ public class BatteryService extends Service {
      * Cek apakah charging tidak stabil
      */
     private boolean isChargingUnstable() {
-        if (recentCurrentSamples.size() < STABILITY_SAMPLE_SIZE) {
+        if (!recentCurrentStats.isFull()) {
             return false;
         }
         
-        float avg = 0;
-        for (Float sample : recentCurrentSamples) {
-            avg += sample;
-        }
-        avg /= recentCurrentSamples.size();
-        
-        // Hitung standard deviation
-        float variance = 0;
-        for (Float sample : recentCurrentSamples) {
-            variance += Math.pow(sample - avg, 2);
-        }
-        variance /= recentCurrentSamples.size();
-        float stdDev = (float) Math.sqrt(variance);
-        
         // Jika coefficient of variation > 20%, dianggap tidak stabil
-        float cv = (stdDev / avg) * 100f;
+        float cv = recentCurrentStats.getCoefficientOfVariation();
         float thresholdStability = preferences.getFloat("threshold_stability", 80f);
         
         return cv > (100f - thresholdStability);
@@ -289,101 +295,7 @@ public class BatteryService extends Service {
         }
     }
     
-    // ===== Battery Reading Methods =====
-    
-    /**
-     * Membaca arus dengan deteksi otomatis unit
-     */
-    private float getCurrentNow() {
-        try {
-            int currentNow = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_NOW);
-            
-            Log.d(TAG, "Raw CURRENT_NOW: " + currentNow);
-            
-            if (currentNow != Integer.MIN_VALUE && currentNow != 0) {
-                return autoScaleCurrent(currentNow);
-            }
-            
-            // Fallback: CURRENT_AVERAGE
-            int currentAvg = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_AVERAGE);
-            
-            if (currentAvg != Integer.MIN_VALUE && currentAvg != 0) {
-                return autoScaleCurrent(currentAvg);
-            }
-            
-            return 0f;
-        } catch (Exception e) {
-            return 0f;
-        }
-    }
-
-    private float autoScaleCurrent(int currentRaw) {
-        float current = currentRaw;
-        if (Math.abs(current) > 10000) {
-            return Math.abs(current / 1000f);
-        }
-        return Math.abs(current);
-    }
-
-    private float getVoltageNow() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int voltage = batteryStatus.getIntExtra(BatteryManager.EXTRA_VOLTAGE, 0);
-                return voltage / 1000f; // Convert to V
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error reading voltage: " + e.getMessage());
-        }
-        return 0f;
-    }
-    
-    private float getTemperature() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int temp = batteryStatus.getIntExtra(BatteryManager.EXTRA_TEMPERATURE, 0);
-                return temp / 10f; // Convert to Celsius
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error reading temperature: " + e.getMessage());
-        }
-        return 0f;
-    }
-    
-    private boolean isCharging() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int status = batteryStatus.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
-                return status == BatteryManager.BATTERY_STATUS_CHARGING ||
-                       status == BatteryManager.BATTERY_STATUS_FULL;
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error checking charging status: " + e.getMessage());
-        }
-        return false;
-    }
-
-    private int getBatteryLevel() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
-                int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
-                return (int) ((level / (float) scale) * 100);
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "Error reading battery level: " + e.getMessage());
-        }
-        return 0;
-    }
-
-    private void playAlarmSound() {
+    private synchronized void playAlarmSound() {
         try {
             stopAlarmSound(); // Stop previous if any
             Uri soundUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
@@ -391,12 +303,20 @@ public class BatteryService extends Service {
                 soundUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
             }
             
-            currentMediaPlayer = new MediaPlayer();
-            currentMediaPlayer.setDataSource(getApplicationContext(), soundUri);
-            currentMediaPlayer.setAudioStreamType(android.media.AudioManager.STREAM_ALARM);
-            currentMediaPlayer.setLooping(true);
-            currentMediaPlayer.prepare();
-            currentMediaPlayer.start();
+            // prepareAsync agar thread sampling tidak diblok saat membuka file suara
+            MediaPlayer player = new MediaPlayer();
+            player.setDataSource(getApplicationContext(), soundUri);
+            player.setAudioStreamType(android.media.AudioManager.STREAM_ALARM);
+            player.setLooping(true);
+            player.setOnPreparedListener(mp -> {
+                synchronized (BatteryService.this) {
+                    if (mp == currentMediaPlayer) {
+                        mp.start();
+                    }
+                }
+            });
+            currentMediaPlayer = player;
+            player.prepareAsync();
             
         } catch (Exception e) {
             Log.e(TAG, "Failed to play alarm: " + e.getMessage());
@@ -404,7 +324,7 @@ public class BatteryService extends Service {
         }
     }
     
-    public void stopAlarmSound() {
+    public synchronized void stopAlarmSound() {
         try {
             if (currentMediaPlayer != null) {
                 if (currentMediaPlayer.isPlaying()) {
@@ -6,6 +6,7 @@ import android.content.Intent;
 import android.os.Build;
 import android.util.Log;
 
+import com.voltcheck.app.utils.BatteryDataLogger;
 import com.voltcheck.app.utils.NotificationUtil;
 
 /**
@@ -52,6 +53,9 @@ public class ChargerReceiver extends BroadcastReceiver {
         
         // Kirim notifikasi
         NotificationUtil.sendChargerDisconnectedNotification(context);
+        
+        // Sesi charging selesai, tulis sample yang masih di buffer
+        BatteryDataLogger.flush(context);
     }
     
     /**
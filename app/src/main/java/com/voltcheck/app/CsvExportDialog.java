@@ -0,0 +1,110 @@
+package com.voltcheck.app;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.provider.DocumentsContract;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import com.voltcheck.app.utils.CsvExporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Menjalankan CsvExporter ke dokumen pilihan user (ACTION_CREATE_DOCUMENT) di thread sendiri,
+ * dengan dialog progress yang bisa dibatalkan. Dipakai oleh Settings dan History.
+ */
+final class CsvExportDialog {
+
+    private CsvExportDialog() {}
+
+    /**
+     * Nama file default untuk CreateDocument
+     */
+    static String suggestedFileName() {
+        return "voltcheck_" + new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.US).format(new Date()) + ".csv";
+    }
+
+    static void start(AppCompatActivity activity, Uri uri) {
+        if (uri == null) return;
+
+        CsvExporter exporter = new CsvExporter(activity);
+        Context appContext = activity.getApplicationContext();
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        AlertDialog dialog = new MaterialAlertDialogBuilder(activity)
+            .setTitle(R.string.export)
+            .setMessage(activity.getString(R.string.export_progress, 0))
+            .setCancelable(false)
+            .setNegativeButton("Cancel", (d, which) -> exporter.cancel())
+            .show();
+
+        // Thread export bisa hidup lebih lama dari activity (misal rotasi); dialog ikut memegang
+        // activity, jadi keduanya hanya dipegang lewat WeakReference
+        WeakReference<AppCompatActivity> activityRef = new WeakReference<>(activity);
+        WeakReference<AlertDialog> dialogRef = new WeakReference<>(dialog);
+
+        Thread thread = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            long rows;
+            try (OutputStream output = appContext.getContentResolver().openOutputStream(uri, "wt")) {
+                if (output == null) throw new IOException("Cannot open " + uri);
+                rows = exporter.export(output, (written, total) -> {
+                    int percent = (int) (written * 100 / Math.max(total, 1));
+                    mainHandler.post(() -> {
+                        AlertDialog progress = getDialog(activityRef, dialogRef);
+                        if (progress != null && progress.isShowing()) {
+                            progress.setMessage(appContext.getString(R.string.export_progress, percent));
+                        }
+                    });
+                });
+            } catch (IOException | RuntimeException e) {
+                rows = -2;
+            }
+            if (rows < 0) {
+                // Jangan tinggalkan file setengah jadi
+                try {
+                    DocumentsContract.deleteDocument(appContext.getContentResolver(), uri);
+                } catch (Exception ignored) {
+                }
+            }
+
+            final long result = rows;
+            mainHandler.post(() -> {
+                AlertDialog progress = getDialog(activityRef, dialogRef);
+                if (progress == null) return;
+                progress.dismiss();
+                String message;
+                if (result >= 0) {
+                    message = appContext.getString(R.string.export_done, result);
+                } else if (result == -1) {
+                    message = appContext.getString(R.string.export_cancelled);
+                } else {
+                    message = appContext.getString(R.string.export_failed);
+                }
+                Toast.makeText(appContext, message, Toast.LENGTH_SHORT).show();
+            });
+        }, "VoltCheck-Export");
+        thread.start();
+    }
+
+    /**
+     * Dialog progress, atau null jika activity sudah ditutup
+     */
+    private static AlertDialog getDialog(WeakReference<AppCompatActivity> activityRef,
+                                         WeakReference<AlertDialog> dialogRef) {
+        AppCompatActivity activity = activityRef.get();
+        if (activity == null || activity.isFinishing() || activity.isDestroyed()) return null;
+        return dialogRef.get();
+    }
+}
@@ -0,0 +1,305 @@
+package com.voltcheck.app;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.text.TextUtils;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.EditText;
+import android.widget.ImageButton;
+import android.widget.TextView;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
+import androidx.annotation.NonNull;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import com.voltcheck.app.data.SessionEntity;
+import com.voltcheck.app.data.SessionStats;
+import com.voltcheck.app.data.VoltCheckDatabase;
+import com.voltcheck.app.utils.BatteryDataLogger;
+import com.voltcheck.app.utils.LocaleHelper;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HistoryActivity - Daftar sesi charging dari database
+ */
+public class HistoryActivity extends AppCompatActivity {
+
+    private static final int PAGE_SIZE = 30;
+    private static final int PREFETCH_DISTANCE = 10;   // Muat halaman berikutnya saat sisa 10 baris
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private VoltCheckDatabase database;
+
+    private RecyclerView recyclerHistory;
+    private TextView tvEmptyHistory;
+    private SessionAdapter adapter;
+    private final SimpleDateFormat nameDateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+
+    private final ActivityResultLauncher<String> exportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("text/csv"), uri -> CsvExportDialog.start(this, uri));
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_history);
+
+        database = VoltCheckDatabase.getInstance(this);
+
+        findViewById(R.id.btnBack).setOnClickListener(v -> finish());
+        findViewById(R.id.btnChart).setOnClickListener(v ->
+                startActivity(new Intent(this, HistoryChartActivity.class)));
+        findViewById(R.id.btnExport).setOnClickListener(v ->
+                exportLauncher.launch(CsvExportDialog.suggestedFileName()));
+        tvEmptyHistory = findViewById(R.id.tvEmptyHistory);
+        recyclerHistory = findViewById(R.id.recyclerHistory);
+        recyclerHistory.setLayoutManager(new LinearLayoutManager(this));
+        recyclerHistory.setHasFixedSize(true);
+        adapter = new SessionAdapter();
+        adapter.setHasStableIds(true);
+        recyclerHistory.setAdapter(adapter);
+        adapter.loadNextPage();
+    }
+
+    @Override
+    protected void attachBaseContext(Context newBase) {
+        super.attachBaseContext(LocaleHelper.onAttach(newBase));
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Halaman yang sudah dimuat (dan posisi scroll) dipertahankan; hanya sesi terbaru yang dicek
+        adapter.refreshFirstPage();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        executor.shutdown();
+    }
+
+    private void showRenameDialog(SessionStats session) {
+        View dialogView = LayoutInflater.from(this).inflate(R.layout.dialog_rename, null);
+        EditText editSessionName = dialogView.findViewById(R.id.editSessionName);
+        editSessionName.setText(getSessionName(session));
+        editSessionName.setSelection(editSessionName.getText().length());
+
+        new MaterialAlertDialogBuilder(this)
+            .setTitle(R.string.cd_rename)
+            .setView(dialogView)
+            .setPositiveButton("OK", (dialog, which) -> {
+                String name = editSessionName.getText().toString().trim();
+                executor.execute(() -> {
+                    String newName = TextUtils.isEmpty(name) ? null : name;
+                    database.sessionDao().upsert(new SessionEntity(session.sessionId, newName));
+                    runOnUiThread(() -> adapter.renameSession(session.sessionId, newName));
+                });
+            })
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    private void confirmDelete(SessionStats session) {
+        new MaterialAlertDialogBuilder(this)
+            .setTitle(R.string.cd_delete)
+            .setMessage(R.string.delete_session_confirm)
+            .setPositiveButton("OK", (dialog, which) -> executor.execute(() -> {
+                BatteryDataLogger.deleteSession(this, session.sessionId);
+                runOnUiThread(() -> adapter.removeSession(session));
+            }))
+            .setNegativeButton("Cancel", null)
+            .show();
+    }
+
+    private String getSessionName(SessionStats session) {
+        if (!TextUtils.isEmpty(session.name)) {
+            return session.name;
+        }
+        String start = nameDateFormat.format(new Date(session.startTime));
+        return getString(R.string.session_default_name, start);
+    }
+
+    /**
+     * Adapter berhalaman: halaman berikutnya di-query di executor (cursor = id sesi terakhir)
+     * saat baris yang di-bind mendekati akhir list
+     */
+    private class SessionAdapter extends RecyclerView.Adapter<SessionViewHolder> {
+
+        private final SimpleDateFormat dateFormat = new SimpleDateFormat("d MMM yyyy, HH:mm", Locale.getDefault());
+        private final List<SessionStats> sessions = new ArrayList<>();
+        private boolean loading = false;
+        private boolean endReached = false;
+
+        void loadNextPage() {
+            if (loading || endReached) return;
+            loading = true;
+            long cursor = sessions.isEmpty() ? Long.MAX_VALUE : sessions.get(sessions.size() - 1).sessionId;
+            executor.execute(() -> {
+                List<SessionStats> page = database.sessionDao().getChargingSessionsBefore(cursor, PAGE_SIZE);
+                runOnUiThread(() -> {
+                    if (isFinishing() || isDestroyed()) return;
+                    loading = false;
+                    endReached = page.size() < PAGE_SIZE;
+                    int start = sessions.size();
+                    sessions.addAll(page);
+                    notifyItemRangeInserted(start, page.size());
+                    tvEmptyHistory.setVisibility(sessions.isEmpty() ? View.VISIBLE : View.GONE);
+                });
+            });
+        }
+
+        /**
+         * Query ulang halaman pertama lalu gabungkan: sesi baru disisipkan di atas, sesi yang
+         * berubah (misal sesi yang masih berjalan) di-update, sesi yang sudah terhapus dibuang.
+         * Halaman lain tidak disentuh.
+         */
+        void refreshFirstPage() {
+            if (sessions.isEmpty()) {
+                // Belum ada yang dimuat, atau memang kosong saat terakhir dimuat
+                endReached = false;
+                loadNextPage();
+                return;
+            }
+            executor.execute(() -> {
+                List<SessionStats> page = database.sessionDao().getChargingSessionsBefore(Long.MAX_VALUE, PAGE_SIZE);
+                runOnUiThread(() -> {
+                    if (isFinishing() || isDestroyed() || sessions.isEmpty()) return;
+                    mergeFirstPage(page);
+                    if (sessions.size() < PREFETCH_DISTANCE) loadNextPage();
+                    tvEmptyHistory.setVisibility(sessions.isEmpty() && endReached ? View.VISIBLE : View.GONE);
+                });
+            });
+        }
+
+        private void mergeFirstPage(List<SessionStats> page) {
+            // Halaman pertama mencakup semua sesi dengan id >= oldestId
+            long oldestId = page.size() < PAGE_SIZE
+                    ? Long.MIN_VALUE : page.get(page.size() - 1).sessionId;
+            Map<Long, SessionStats> fresh = new HashMap<>();
+            for (SessionStats session : page) {
+                fresh.put(session.sessionId, session);
+            }
+
+            for (int i = sessions.size() - 1; i >= 0; i--) {
+                SessionStats current = sessions.get(i);
+                if (current.sessionId < oldestId) continue;
+                SessionStats updated = fresh.remove(current.sessionId);
+                if (updated == null) {
+                    sessions.remove(i);
+                    notifyItemRemoved(i);
+                } else if (updated.sampleCount != current.sampleCount || updated.endTime != current.endTime
+                        || !TextUtils.equals(updated.name, current.name)) {
+                    sessions.set(i, updated);
+                    notifyItemChanged(i);
+                }
+            }
+
+            // Sisa di fresh adalah sesi yang belum ada di list (biasanya sesi baru di atas).
+            // Sesi setelah baris terakhir dilewati jika masih ada halaman, nanti dimuat loadNextPage.
+            int position = 0;
+            for (SessionStats session : page) {
+                if (!fresh.containsKey(session.sessionId)) continue;
+                while (position < sessions.size() && sessions.get(position).sessionId > session.sessionId) {
+                    position++;
+                }
+                if (position == sessions.size() && !endReached) break;
+                sessions.add(position, session);
+                notifyItemInserted(position);
+            }
+        }
+
+        void renameSession(long sessionId, String name) {
+            int position = indexOf(sessionId);
+            if (position < 0) return;
+            sessions.get(position).name = name;
+            notifyItemChanged(position);
+        }
+
+        void removeSession(SessionStats session) {
+            int position = indexOf(session.sessionId);
+            if (position < 0) return;
+            sessions.remove(position);
+            notifyItemRemoved(position);
+            if (sessions.size() < PREFETCH_DISTANCE) loadNextPage();
+            tvEmptyHistory.setVisibility(sessions.isEmpty() && endReached ? View.VISIBLE : View.GONE);
+        }
+
+        private int indexOf(long sessionId) {
+            for (int i = 0; i < sessions.size(); i++) {
+                if (sessions.get(i).sessionId == sessionId) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return sessions.get(position).sessionId;
+        }
+
+        @NonNull
+        @Override
+        public SessionViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.item_history, parent, false);
+            return new SessionViewHolder(view);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull SessionViewHolder holder, int position) {
+            if (position >= sessions.size() - PREFETCH_DISTANCE) {
+                // Dipanggil dari layout pass; post agar notify tidak terjadi di tengah layout
+                recyclerHistory.post(this::loadNextPage);
+            }
+
+            SessionStats session = sessions.get(position);
+            long minutes = session.getDurationMillis() / 60000;
+
+            holder.tvSessionName.setText(getSessionName(session));
+            holder.tvTimestamp.setText(String.format(Locale.getDefault(), "%s • %d min • %d%% → %d%%",
+                    dateFormat.format(new Date(session.startTime)), minutes, session.minLevel, session.maxLevel));
+            holder.tvStatistics.setText(getString(R.string.session_statistics,
+                    session.avgCurrent, session.maxCurrent, session.getStability(), session.getVoltageDrop()));
+            holder.itemView.setOnClickListener(v ->
+                    SessionChartDialog.show(HistoryActivity.this, executor, session, getSessionName(session)));
+            holder.btnRename.setOnClickListener(v -> showRenameDialog(session));
+            holder.btnDelete.setOnClickListener(v -> confirmDelete(session));
+        }
+
+        @Override
+        public int getItemCount() {
+            return sessions.size();
+        }
+    }
+
+    private static class SessionViewHolder extends RecyclerView.ViewHolder {
+        final TextView tvSessionName;
+        final TextView tvTimestamp;
+        final TextView tvStatistics;
+        final ImageButton btnRename;
+        final ImageButton btnDelete;
+
+        SessionViewHolder(View itemView) {
+            super(itemView);
+            tvSessionName = itemView.findViewById(R.id.tvSessionName);
+            tvTimestamp = itemView.findViewById(R.id.tvTimestamp);
+            tvStatistics = itemView.findViewById(R.id.tvStatistics);
+            btnRename = itemView.findViewById(R.id.btnRename);
+            btnDelete = itemView.findViewById(R.id.btnDelete);
+        }
+    }
+}
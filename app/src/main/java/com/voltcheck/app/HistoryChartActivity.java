@@ -0,0 +1,356 @@
+package com.voltcheck.app;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.MotionEvent;
+import android.widget.TextView;
+
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+
+import com.github.mikephil.charting.charts.LineChart;
+import com.github.mikephil.charting.components.XAxis;
+import com.github.mikephil.charting.data.Entry;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.LineDataSet;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.github.mikephil.charting.listener.ChartTouchListener;
+import com.github.mikephil.charting.listener.OnChartGestureListener;
+import com.voltcheck.app.data.RollupEntity;
+import com.voltcheck.app.data.RollupWriter;
+import com.voltcheck.app.data.VoltCheckDatabase;
+import com.voltcheck.app.utils.BatteryDataLogger;
+import com.voltcheck.app.utils.CalculationUtil;
+import com.voltcheck.app.utils.LocaleHelper;
+import com.voltcheck.app.utils.RangeAggregateIndex;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HistoryChartActivity - Chart arus 7 hari terakhir yang bisa di-pinch-zoom sampai level detik.
+ * Setiap tier (rollup 1 jam, rollup 1 menit, sample mentah) dimuat sekali ke RangeAggregateIndex
+ * dan dipakai ulang; perubahan viewport hanya query O(buckets log n) ke tier yang sesuai,
+ * dibagi menjadi bucket selebar kira-kira 2 pixel (min, max, rata-rata).
+ * Tier sample mentah terlalu besar untuk 7 hari, jadi dimuat per jendela di sekitar viewport
+ * dan baru dimuat ulang saat viewport keluar dari jendela tersebut.
+ */
+public class HistoryChartActivity extends AppCompatActivity {
+
+    private static final long RANGE_MILLIS = 7L * 24 * 60 * 60 * 1000;   // Rentang chart penuh
+    private static final long RAW_MAX_SPAN_MILLIS = 3L * 60 * 60 * 1000;  // <= 3 jam: sample mentah
+    private static final long MINUTE_MAX_SPAN_MILLIS = 3L * 24 * 60 * 60 * 1000; // <= 3 hari: rollup 1 menit
+    private static final long RAW_WINDOW_MARGIN_MILLIS = 2 * RAW_MAX_SPAN_MILLIS;  // Jendela sample mentah di kiri/kanan
+    private static final long RELOAD_DELAY_MILLIS = 150;
+    private static final float MIN_VISIBLE_SECONDS = 60f;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable reloadRunnable = this::reloadVisibleRange;
+    private final SimpleDateFormat rangeFormat = new SimpleDateFormat("d MMM HH:mm:ss", Locale.getDefault());
+
+    private LineChart chart;
+    private TextView tvChartRange;
+    private long originMillis;      // x = detik sejak origin
+    private int generation = 0;     // Hasil query lama dibuang
+
+    // Index per tier, hanya disentuh di executor
+    private TierIndex hourTier;
+    private TierIndex minuteTier;
+    private TierIndex rawTier;
+
+    /**
+     * Index arus dan tegangan satu tier untuk rentang [from, to)
+     */
+    private static final class TierIndex {
+        final long from;
+        final long to;
+        final RangeAggregateIndex current;
+        final RangeAggregateIndex voltage;
+
+        TierIndex(long from, long to, RangeAggregateIndex current, RangeAggregateIndex voltage) {
+            this.from = from;
+            this.to = to;
+            this.current = current;
+            this.voltage = voltage;
+        }
+
+        boolean covers(long rangeFrom, long rangeTo) {
+            return rangeFrom >= from && rangeTo <= to;
+        }
+    }
+
+    /**
+     * Hasil query untuk satu viewport
+     */
+    private static final class ChartResult {
+        LineData data;
+        float averageCurrent;
+        float voltageDrop;
+    }
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        setContentView(R.layout.activity_history_chart);
+
+        findViewById(R.id.btnBack).setOnClickListener(v -> finish());
+        tvChartRange = findViewById(R.id.tvChartRange);
+        chart = findViewById(R.id.chartHistory);
+        originMillis = System.currentTimeMillis() - RANGE_MILLIS;
+        setupChart();
+        mainHandler.post(reloadRunnable);
+    }
+
+    @Override
+    protected void attachBaseContext(Context newBase) {
+        super.attachBaseContext(LocaleHelper.onAttach(newBase));
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        mainHandler.removeCallbacks(reloadRunnable);
+        executor.shutdownNow();
+    }
+
+    private void setupChart() {
+        int textColor = ContextCompat.getColor(this, R.color.gray_text);
+        chart.getDescription().setEnabled(false);
+        chart.setDrawGridBackground(false);
+        chart.setNoDataText("");
+        chart.setScaleXEnabled(true);
+        chart.setScaleYEnabled(false);
+        chart.setDragEnabled(true);
+        chart.setAutoScaleMinMaxEnabled(true);
+        chart.getLegend().setTextColor(textColor);
+        chart.getAxisRight().setEnabled(false);
+        chart.getAxisLeft().setTextColor(textColor);
+
+        // Sumbu x tetap selebar rentang penuh agar zoom/pan tidak bergeser saat data diganti
+        XAxis xAxis = chart.getXAxis();
+        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+        xAxis.setTextColor(textColor);
+        xAxis.setAxisMinimum(0f);
+        xAxis.setAxisMaximum(RANGE_MILLIS / 1000f);
+        xAxis.setLabelCount(4);
+        xAxis.setValueFormatter(new ValueFormatter() {
+            private final SimpleDateFormat dayFormat = new SimpleDateFormat("d MMM", Locale.getDefault());
+            private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss", Locale.getDefault());
+
+            @Override
+            public String getFormattedValue(float value) {
+                float visibleSeconds = chart.getVisibleXRange();
+                Date date = new Date(originMillis + (long) (value * 1000));
+                return visibleSeconds > 2 * 24 * 60 * 60 ? dayFormat.format(date) : timeFormat.format(date);
+            }
+        });
+
+        chart.setOnChartGestureListener(new OnChartGestureListener() {
+            @Override
+            public void onChartGestureStart(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {}
+
+            @Override
+            public void onChartGestureEnd(MotionEvent me, ChartTouchListener.ChartGesture lastPerformedGesture) {
+                scheduleReload();
+            }
+
+            @Override
+            public void onChartLongPressed(MotionEvent me) {}
+
+            @Override
+            public void onChartDoubleTapped(MotionEvent me) {
+                scheduleReload();
+            }
+
+            @Override
+            public void onChartSingleTapped(MotionEvent me) {}
+
+            @Override
+            public void onChartFling(MotionEvent me1, MotionEvent me2, float velocityX, float velocityY) {}
+
+            @Override
+            public void onChartScale(MotionEvent me, float scaleX, float scaleY) {
+                scheduleReload();
+            }
+
+            @Override
+            public void onChartTranslate(MotionEvent me, float dX, float dY) {
+                scheduleReload();
+            }
+        });
+    }
+
+    /**
+     * Gabungkan event zoom/pan beruntun menjadi satu query
+     */
+    private void scheduleReload() {
+        mainHandler.removeCallbacks(reloadRunnable);
+        mainHandler.postDelayed(reloadRunnable, RELOAD_DELAY_MILLIS);
+    }
+
+    private void reloadVisibleRange() {
+        float lowX = 0f;
+        float highX = RANGE_MILLIS / 1000f;
+        if (chart.getData() != null) {
+            // Viewport baru valid setelah data pertama terpasang
+            lowX = Math.max(chart.getLowestVisibleX(), 0f);
+            highX = Math.min(chart.getHighestVisibleX(), highX);
+        }
+        long from = originMillis + (long) (lowX * 1000);
+        long to = originMillis + (long) (highX * 1000);
+        int width = chart.getWidth() > 0 ? chart.getWidth() : getResources().getDisplayMetrics().widthPixels;
+        int buckets = Math.max(width / 2, 50);
+
+        int requestGeneration = ++generation;
+        executor.execute(() -> {
+            ChartResult result = load(from, to, buckets);
+            runOnUiThread(() -> {
+                if (isFinishing() || isDestroyed() || requestGeneration != generation) return;
+                tvChartRange.setText(getString(R.string.history_chart_range,
+                        rangeFormat.format(new Date(from)), rangeFormat.format(new Date(to)),
+                        result.averageCurrent, result.voltageDrop));
+                chart.setData(result.data);
+                chart.setVisibleXRangeMinimum(MIN_VISIBLE_SECONDS);
+                chart.invalidate();
+            });
+        });
+    }
+
+    /**
+     * Query tier yang sesuai untuk rentang terlihat (ditambah setengah rentang di kiri/kanan
+     * agar pan pendek tidak menampilkan area kosong) dan bagi menjadi bucket.
+     * Index tier dibangun saat pertama dibutuhkan, bukan per viewport.
+     */
+    private ChartResult load(long visibleFrom, long visibleTo, int visibleBuckets) {
+        long span = visibleTo - visibleFrom;
+        long from = Math.max(visibleFrom - span / 2, originMillis);
+        long to = Math.min(visibleTo + span / 2, originMillis + RANGE_MILLIS);
+        int buckets = (int) Math.max(1, visibleBuckets * (to - from) / Math.max(span, 1));
+
+        TierIndex tier = selectTier(span, from, to);
+        RangeAggregateIndex currentIndex = tier.current;
+        RangeAggregateIndex voltageIndex = tier.voltage;
+
+        RangeAggregateIndex.Aggregate[] aggregates = new RangeAggregateIndex.Aggregate[buckets];
+        currentIndex.query(from, to, buckets, aggregates);
+        List<Entry> minEntries = new ArrayList<>(buckets);
+        List<Entry> maxEntries = new ArrayList<>(buckets);
+        List<Entry> meanEntries = new ArrayList<>(buckets);
+        long bucketWidth = (to - from) / buckets;
+        for (int b = 0; b < buckets; b++) {
+            RangeAggregateIndex.Aggregate aggregate = aggregates[b];
+            if (aggregate.count == 0) continue;
+            float x = (from + bucketWidth * b + bucketWidth / 2 - originMillis) / 1000f;
+            minEntries.add(new Entry(x, aggregate.min));
+            maxEntries.add(new Entry(x, aggregate.max));
+            meanEntries.add(new Entry(x, aggregate.getMean()));
+        }
+
+        int currentColor = ContextCompat.getColor(this, R.color.warning);
+        int bandColor = Color.argb(90, Color.red(currentColor), Color.green(currentColor), Color.blue(currentColor));
+        ChartResult result = new ChartResult();
+        result.data = new LineData(
+                createDataSet(maxEntries, "Max (mA)", bandColor, 1f),
+                createDataSet(meanEntries, "Arus (mA)", currentColor, 1.5f),
+                createDataSet(minEntries, "Min (mA)", bandColor, 1f));
+
+        RangeAggregateIndex.Aggregate visible = new RangeAggregateIndex.Aggregate();
+        currentIndex.aggregate(visibleFrom, visibleTo, visible);
+        result.averageCurrent = visible.getMean();
+        result.voltageDrop = CalculationUtil.calculateVoltageDrop(voltageIndex, visibleFrom, visibleTo);
+        return result;
+    }
+
+    /**
+     * Tier untuk lebar viewport. Rollup 1 menit hanya dipakai jika seluruh rentang masih dalam
+     * masa simpannya dan ada isinya; selain itu rollup 1 jam.
+     */
+    private TierIndex selectTier(long span, long from, long to) {
+        if (span <= RAW_MAX_SPAN_MILLIS) {
+            if (rawTier == null || !rawTier.covers(from, to)) {
+                long windowFrom = Math.max(from - RAW_WINDOW_MARGIN_MILLIS, originMillis);
+                long windowTo = Math.min(to + RAW_WINDOW_MARGIN_MILLIS, originMillis + RANGE_MILLIS);
+                rawTier = loadSamples(windowFrom, windowTo);
+            }
+            return rawTier;
+        }
+        long minuteRetained = System.currentTimeMillis() - BatteryDataLogger.MINUTE_ROLLUP_RETENTION_MILLIS;
+        if (span <= MINUTE_MAX_SPAN_MILLIS && from >= minuteRetained) {
+            if (minuteTier == null) {
+                minuteTier = loadRollups(RollupWriter.MINUTE);
+            }
+            if (!minuteTier.current.isEmpty()) {
+                return minuteTier;
+            }
+        }
+        if (hourTier == null) {
+            hourTier = loadRollups(RollupWriter.HOUR);
+        }
+        return hourTier;
+    }
+
+    /**
+     * Satu leaf per sample mentah (arsip terkompresi + tabel samples) di [from, to)
+     */
+    private TierIndex loadSamples(long from, long to) {
+        SampleColumns columns = new SampleColumns();
+        BatteryDataLogger.readDataLog(this, from, to,
+                (timestamp, current, voltage, temperature, level, status) -> columns.add(timestamp, current, voltage));
+        return new TierIndex(from, to,
+                RangeAggregateIndex.ofSamples(columns.times, columns.current, columns.size),
+                RangeAggregateIndex.ofSamples(columns.times, columns.voltage, columns.size));
+    }
+
+    /**
+     * Satu leaf per bucket rollup untuk seluruh rentang chart
+     */
+    private TierIndex loadRollups(long resolution) {
+        long from = originMillis;
+        long to = originMillis + RANGE_MILLIS;
+        VoltCheckDatabase database = VoltCheckDatabase.getInstance(this);
+        List<RollupEntity> rollups = database.rollupDao().getRange(resolution, from - resolution, to);
+
+        int size = rollups.size();
+        long[] times = new long[size];
+        int[] counts = new int[size];
+        double[] currentSums = new double[size];
+        float[] currentMins = new float[size];
+        float[] currentMaxs = new float[size];
+        double[] voltageSums = new double[size];
+        float[] voltageMins = new float[size];
+        float[] voltageMaxs = new float[size];
+        for (int i = 0; i < size; i++) {
+            RollupEntity rollup = rollups.get(i);
+            times[i] = rollup.bucketStart;
+            counts[i] = rollup.count;
+            currentSums[i] = (double) rollup.currentMean * rollup.count;
+            currentMins[i] = rollup.currentMin;
+            currentMaxs[i] = rollup.currentMax;
+            voltageSums[i] = (double) rollup.voltageMean * rollup.count;
+            voltageMins[i] = rollup.voltageMin;
+            voltageMaxs[i] = rollup.voltageMax;
+        }
+        return new TierIndex(from, to,
+                new RangeAggregateIndex(times, counts, currentSums, currentMins, currentMaxs, size),
+                new RangeAggregateIndex(times, counts, voltageSums, voltageMins, voltageMaxs, size));
+    }
+
+    private LineDataSet createDataSet(List<Entry> entries, String label, int color, float lineWidth) {
+        LineDataSet dataSet = new LineDataSet(entries, label);
+        dataSet.setColor(color);
+        dataSet.setLineWidth(lineWidth);
+        dataSet.setDrawCircles(false);
+        dataSet.setDrawValues(false);
+        dataSet.setHighlightEnabled(false);
+        return dataSet;
+    }
+}
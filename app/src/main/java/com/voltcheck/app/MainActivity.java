@@ -1,40 +1,39 @@
 package com.voltcheck.app;
 
+import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
-import android.content.IntentFilter;
+import android.content.ServiceConnection;
 import android.content.SharedPreferences;
 import android.graphics.Color;
 import android.os.BatteryManager;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.IBinder;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
-import android.view.View;
 import android.widget.TextView;
-import android.widget.Toast;
 
-import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.widget.PopupMenu;
 
-import com.github.mikephil.charting.charts.LineChart;
-import com.github.mikephil.charting.components.XAxis;
-import com.github.mikephil.charting.data.Entry;
-import com.github.mikephil.charting.data.LineData;
-import com.github.mikephil.charting.data.LineDataSet;
-import com.google.android.material.button.MaterialButton;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
-import com.google.android.material.floatingactionbutton.FloatingActionButton;
-import com.google.android.material.slider.Slider;
+import com.voltcheck.app.chart.ChartRenderScheduler;
+import com.voltcheck.app.chart.LiveTraceView;
 import com.voltcheck.app.utils.NotificationUtil;
 import com.voltcheck.app.utils.LocaleHelper;
 import com.voltcheck.app.utils.BatteryDataLogger;
+import com.voltcheck.app.utils.BatterySnapshot;
+import com.voltcheck.app.utils.DeviceCapabilities;
+import com.voltcheck.app.utils.SampleRingFile;
+import java.io.File;
+import java.io.IOException;
 import java.util.Locale;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -43,35 +42,46 @@ import java.util.List;
 public class MainActivity extends AppCompatActivity {
     
     private static final String TAG = "MainActivity";
-    private static final int MAX_CHART_ENTRIES = 60; // 60 data points
-    private static final int SAMPLE_SIZE = 5; // Jumlah sample untuk averaging
-    
-    private long UPDATE_INTERVAL = 1000; // Default 1 detik, akan diupdate dari Settings
+    private static final int MAX_CHART_ENTRIES = 500; // Titik per trace live
+    private static final long UI_BATCH_MILLIS = 250; // Render maksimal 4x per detik
+    private static final long CHART_SEED_MAX_AGE_NANOS = 10L * 60 * 1000000000L; // Seed chart dari 10 menit terakhir
     
     // UI Components
     private TextView tvCurrentMain, tvMinCurrentLabel, tvMaxCurrentLabel;
     private TextView tvStatus, tvChargingType, tvLevel, tvHealth, tvTechnology, tvCapacity, tvTemperature, tvVoltage;
     private TextView tvManufacturer, tvModel, tvAndroidVersion, tvBuildId;
-    private LineChart chartCurrent, chartVoltage, chartTemperature, chartLevel;
+    private LiveTraceView chartCurrent, chartVoltage, chartTemperature, chartLevel;
     
     // Battery Manager
     private BatteryManager batteryManager;
-    private Handler handler;
-    private Runnable updateRunnable;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    
+    // Sampling engine (dimiliki BatteryService)
+    private SamplingEngine samplingEngine;
+    private boolean isServiceBound = false;
+    private final SamplingEngine.Listener sampleListener = this::onSamples;
+    private final ServiceConnection serviceConnection = new ServiceConnection() {
+        @Override
+        public void onServiceConnected(ComponentName name, IBinder binder) {
+            samplingEngine = ((BatteryService.LocalBinder) binder).getEngine();
+            samplingEngine.subscribe(sampleListener, UI_BATCH_MILLIS);
+        }
+        
+        @Override
+        public void onServiceDisconnected(ComponentName name) {
+            samplingEngine = null;
+        }
+    };
     
-    // Chart data
-    private List<Entry> currentEntries = new ArrayList<>();
-    private List<Entry> voltageEntries = new ArrayList<>();
-    private List<Entry> temperatureEntries = new ArrayList<>();
-    private List<Entry> levelEntries = new ArrayList<>();
-    private int chartIndex = 0;
+    // Redraw chart live digabung per frame (hanya disentuh di main thread)
+    private final ChartRenderScheduler chartScheduler = new ChartRenderScheduler();
     
     // Compatibility
     private boolean isCurrentSupported = true;
+    private boolean isCompatibilityChecked = false;
     private SharedPreferences preferences;
     
     // Current measurement
-    private List<Float> currentSamples = new ArrayList<>();
     private float minCurrent = Float.MAX_VALUE;
     private float maxCurrent = Float.MIN_VALUE;
     
@@ -103,18 +113,15 @@ public class MainActivity extends AppCompatActivity {
         
         // Initialize
         batteryManager = (BatteryManager) getSystemService(Context.BATTERY_SERVICE);
-        handler = new Handler(Looper.getMainLooper());
         
         // Setup UI
         initializeViews();
         initializeCharts();
+        seedChartsFromRing();
         setupClickListeners();
         
         // Create notification channels
         NotificationUtil.createNotificationChannels(this);
-        
-        // Check compatibility
-        checkCompatibility();
     }
 
     @Override
@@ -125,8 +132,7 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
-        // Load refresh interval from settings
-        UPDATE_INTERVAL = SettingsActivity.getRefreshInterval(this);
+        applyChartWindow();
         startMonitoring();
     }
     
@@ -134,6 +140,13 @@ public class MainActivity extends AppCompatActivity {
     protected void onPause() {
         super.onPause();
         stopMonitoring();
+        BatteryDataLogger.flush(this);
+    }
+    
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        chartScheduler.release();
     }
     
     /**
@@ -185,421 +198,357 @@ public class MainActivity extends AppCompatActivity {
      * Initialize all charts
      */
     private void initializeCharts() {
-        setupChart(chartCurrent, "Arus (mA)", Color.parseColor("#FFD600"));
-        setupChart(chartVoltage, "Tegangan (V)", Color.parseColor("#00E676"));
-        setupChart(chartTemperature, "Suhu (°C)", Color.parseColor("#FF5252"));
-        setupChart(chartLevel, "Level (%)", Color.parseColor("#448AFF"));
+        setupChart(chartCurrent, "Arus (mA)", Color.parseColor("#FFD600"), 10f);
+        setupChart(chartVoltage, "Tegangan (V)", Color.parseColor("#00E676"), 0.05f);
+        setupChart(chartTemperature, "Suhu (°C)", Color.parseColor("#FF5252"), 1f);
+        setupChart(chartLevel, "Level (%)", Color.parseColor("#448AFF"), 5f);
+        
+        // Redraw per chart mengikuti seberapa cepat sinyalnya berubah
+        chartScheduler.register(chartCurrent, 0);
+        chartScheduler.register(chartVoltage, 1000);
+        chartScheduler.register(chartTemperature, 2000);
+        chartScheduler.register(chartLevel, 5000);
     }
     
     /**
      * Setup individual chart
      */
-    private void setupChart(LineChart chart, String label, int color) {
-        chart.setBackgroundColor(Color.TRANSPARENT);
-        chart.setDrawGridBackground(false);
-        chart.getDescription().setEnabled(false);
-        chart.setTouchEnabled(true);
-        chart.setDragEnabled(true);
-        chart.setScaleEnabled(false);
-        chart.setPinchZoom(false);
-        
-        // Legend
-        chart.getLegend().setTextColor(Color.WHITE);
-        chart.getLegend().setEnabled(true);
-        
-        // X Axis
-        XAxis xAxis = chart.getXAxis();
-        xAxis.setTextColor(Color.WHITE);
-        xAxis.setDrawGridLines(true);
-        xAxis.setGridColor(Color.argb(50, 255, 255, 255));
-        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
-        
-        // Y Axis
-        chart.getAxisLeft().setTextColor(Color.WHITE);
-        chart.getAxisLeft().setDrawGridLines(true);
-        chart.getAxisLeft().setGridColor(Color.argb(50, 255, 255, 255));
-        chart.getAxisRight().setEnabled(false);
-        
-        // Initial empty dataset
-        LineDataSet dataSet = new LineDataSet(new ArrayList<>(), label);
-        dataSet.setColor(color);
-        dataSet.setLineWidth(2f);
-        dataSet.setDrawCircles(false);
-        dataSet.setDrawValues(false);
-        dataSet.setMode(LineDataSet.Mode.CUBIC_BEZIER);
-        
-        LineData lineData = new LineData(dataSet);
-        chart.setData(lineData);
+    private void setupChart(LiveTraceView chart, String label, int color, float minRange) {
+        chart.setCapacity(MAX_CHART_ENTRIES);
+        chart.setLabel(label);
+        chart.setLineColor(color);
+        chart.setMinRange(minRange);
     }
     
     /**
-     * Setup click listeners
+     * Lebar sumbu X chart = kapasitas titik x interval refresh dari Settings
      */
-    private void setupClickListeners() {
-        // Settings button
-        findViewById(R.id.btnSettings).setOnClickListener(v -> openSettings());
+    private void applyChartWindow() {
+        long window = MAX_CHART_ENTRIES * SettingsActivity.getRefreshInterval(this);
+        chartCurrent.setTimeWindow(window);
+        chartVoltage.setTimeWindow(window);
+        chartTemperature.setTimeWindow(window);
+        chartLevel.setTimeWindow(window);
     }
     
     /**
-     * Check device compatibility
+     * Setup click listeners
      */
-    private void checkCompatibility() {
-        float current = getCurrentNow();
-        if (current == 0f) {
-            isCurrentSupported = false;
-            tvCurrentMain.setText("N/A");
-        } else {
-            isCurrentSupported = true;
-        }
+    private void setupClickListeners() {
+        // Settings button
+        findViewById(R.id.btnSettings).setOnClickListener(v -> openSettings());
+        
+        // History button
+        findViewById(R.id.btnHistory).setOnClickListener(v -> openHistory());
+        
+        // Menu button: tema tanpa action bar, jadi menu opsi ditampilkan sebagai popup
+        findViewById(R.id.btnMenu).setOnClickListener(v -> {
+            PopupMenu popup = new PopupMenu(this, v);
+            popup.getMenuInflater().inflate(R.menu.menu_main, popup.getMenu());
+            popup.setOnMenuItemClickListener(this::onOptionsItemSelected);
+            popup.show();
+        });
     }
     
     /**
      * Start monitoring battery
      */
     private void startMonitoring() {
-        updateRunnable = new Runnable() {
-            @Override
-            public void run() {
-                updateBatteryInfo();
-                handler.postDelayed(this, UPDATE_INTERVAL);
-            }
-        };
-        handler.post(updateRunnable);
+        // Interval refresh dibaca engine dari Settings saat subscribe
+        Intent intent = new Intent(this, BatteryService.class);
+        isServiceBound = bindService(intent, serviceConnection, Context.BIND_AUTO_CREATE);
     }
     
     /**
      * Stop monitoring battery
      */
     private void stopMonitoring() {
-        if (handler != null && updateRunnable != null) {
-            handler.removeCallbacks(updateRunnable);
+        if (samplingEngine != null) {
+            samplingEngine.unsubscribe(sampleListener);
+            samplingEngine = null;
         }
+        if (isServiceBound) {
+            unbindService(serviceConnection);
+            isServiceBound = false;
+        }
+    }
+    
+    /**
+     * State tampilan final yang dihitung di thread sampling, tidak diubah lagi setelah di-post ke UI
+     */
+    private static final class ViewState {
+        boolean currentSupported;
+        String currentText;
+        String minCurrentText;
+        String maxCurrentText;
+        String statusText;
+        String chargingType;
+        String levelText;
+        String health;
+        String technology;
+        String capacityText;
+        String temperatureText;
+        String voltageText;
+        int progress;
+        boolean charging;
+        
+        // Titik chart untuk setiap sample di batch
+        float[] chartCurrent;
+        float[] chartVoltage;
+        float[] chartTemperature;
+        float[] chartLevel;
+        long[] chartNanos;
     }
     
     /**
-     * Update battery information
+     * Terima batch sample dari engine (thread sampling): analisis di sini, UI hanya menerima ViewState
      */
-    private void updateBatteryInfo() {
+    private void onSamples(List<BatterySample> batch) {
+        if (!isCompatibilityChecked) {
+            isCompatibilityChecked = true;
+            isCurrentSupported = batch.get(0).current != 0f;
+        }
         try {
-            // Gunakan smoothed current untuk tampilan yang lebih stabil
-            float current = getCurrentSmoothed();
-            float voltage = getVoltageNow();
-            float temperature = getTemperature();
-            int level = getBatteryLevel();
-            String chargingType = getChargingType();
-            boolean charging = isCharging();
-            String health = getBatteryHealth();
-            String technology = getBatteryTechnology();
-            int capacity = getBatteryCapacity();
-            
-            // Hitung daya (Power) dalam mW
-            float power = voltage * Math.abs(current);
-            
-            // Update main current display
-            if (isCurrentSupported) {
-                float displayCurrent;
-                if (charging) {
-                    displayCurrent = Math.abs(current);
-                } else {
-                    displayCurrent = -Math.abs(current);
-                }
-                
-                // Tampilkan angka saja tanpa desimal (sesuai UI mockup)
-                tvCurrentMain.setText(String.format(Locale.US, "%.0f", displayCurrent));
-                
-                // Track min/max
-                if (displayCurrent < minCurrent) {
-                    minCurrent = displayCurrent;
-                    tvMinCurrentLabel.setText(String.format("%.0f mA", minCurrent));
-                }
-                if (displayCurrent > maxCurrent) {
-                    maxCurrent = displayCurrent;
-                    tvMaxCurrentLabel.setText(String.format("%.0f mA", maxCurrent));
-                }
-            } else {
-                tvCurrentMain.setText("N/A");
-            }
-            
-            // Update battery info
-            String statusText = charging ? "Charging" : "Not Charging";
-            if (power > 0) {
-                statusText += String.format(" (%.1f W)", power / 1000f);
-            }
-            
-            // Time to Full Calculation
-            boolean showTimeToFull = preferences.getBoolean("show_time_to_full", false);
-            if (showTimeToFull && charging && current > 0) {
-                int designCapacity = preferences.getInt("design_capacity", 4500);
-                if (level < 100) {
-                    float remainingCapacity = (designCapacity * (100 - level)) / 100f;
-                    float hours = remainingCapacity / current;
-                    int minutes = (int) (hours * 60);
-                    
-                    String timeString;
-                    if (minutes >= 60) {
-                        int h = minutes / 60;
-                        int m = minutes % 60;
-                        timeString = String.format(Locale.getDefault(), "%d h %d min", h, m);
-                    } else {
-                        timeString = String.format(Locale.getDefault(), "%d min", minutes);
-                    }
-                    
-                    statusText += "\n" + String.format(getString(R.string.time_remaining), timeString);
-                }
-            }
-            
-            tvStatus.setText(statusText);
-            tvChargingType.setText(chargingType);
-            tvLevel.setText(level + "%");
-            tvHealth.setText(health);
-            tvTechnology.setText(technology);
-            tvCapacity.setText(capacity + " mAh");
-            tvTemperature.setText(String.format("%.1f °C", temperature));
-            tvVoltage.setText(String.format("%.3f V", voltage));
-            
-            // Update progress bar
-            android.widget.ProgressBar progressBar = findViewById(R.id.progressBarCurrent);
-            if (progressBar != null) {
-                int progress = 50; // Default middle
-                if (isCurrentSupported && maxCurrent > minCurrent) {
-                    float displayCurrent = charging ? current : -current;
-                    progress = (int) (((displayCurrent - minCurrent) / (maxCurrent - minCurrent)) * 100);
-                    progress = Math.max(0, Math.min(100, progress));
-                }
-                progressBar.setProgress(progress);
-                
-                if (charging) {
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                        progressBar.setProgressTintList(android.content.res.ColorStateList.valueOf(
-                            getResources().getColor(R.color.progress_charging, getTheme())
-                        ));
-                    }
-                } else {
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                        progressBar.setProgressTintList(android.content.res.ColorStateList.valueOf(
-                            getResources().getColor(R.color.progress_discharging, getTheme())
-                        ));
-                    }
-                }
-            }
-            
-            // Update charts
-            updateCharts(current, voltage, temperature, level);
-            
-            // Log data for export (every 10 seconds to avoid too much data)
-            if (chartIndex % 10 == 0) {
-                BatteryDataLogger.logData(this, current, voltage, temperature, level, statusText);
-            }
-            
+            ViewState state = buildViewState(batch);
+            mainHandler.post(() -> render(state));
         } catch (Exception e) {
             Log.e(TAG, "Error updating battery info: " + e.getMessage());
         }
     }
     
     /**
-     * Update all charts
+     * Hitung semua teks, progress dan titik chart dari batch sample
      */
-    private void updateCharts(float current, float voltage, float temperature, int level) {
-        chartIndex++;
+    private ViewState buildViewState(List<BatterySample> batch) {
+        ViewState state = new ViewState();
+        int count = batch.size();
+        state.chartCurrent = new float[count];
+        state.chartVoltage = new float[count];
+        state.chartTemperature = new float[count];
+        state.chartLevel = new float[count];
+        state.chartNanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            BatterySample sample = batch.get(i);
+            state.chartCurrent[i] = sample.currentSmoothed;
+            state.chartVoltage[i] = sample.getVoltage();
+            state.chartTemperature[i] = sample.getTemperature();
+            state.chartLevel[i] = sample.getLevel();
+            state.chartNanos[i] = sample.elapsedNanos;
+        }
         
-        // Add entries
+        // Gunakan smoothed current untuk tampilan yang lebih stabil
+        BatterySample sample = batch.get(count - 1);
+        BatterySnapshot snapshot = sample.snapshot;
+        float current = sample.currentSmoothed;
+        float voltage = snapshot.voltage;
+        float temperature = snapshot.temperature;
+        int level = snapshot.level;
+        boolean charging = snapshot.isCharging();
+        int capacity = DeviceCapabilities.get(this).readCapacity(batteryManager);
+        
+        // Hitung daya (Power) dalam mW
+        float power = voltage * Math.abs(current);
+        
+        state.currentSupported = isCurrentSupported;
+        state.charging = charging;
+        
+        // Update main current display
         if (isCurrentSupported) {
-            currentEntries.add(new Entry(chartIndex, current));
-            if (currentEntries.size() > MAX_CHART_ENTRIES) {
-                currentEntries.remove(0);
+            float displayCurrent;
+            if (charging) {
+                displayCurrent = Math.abs(current);
+            } else {
+                displayCurrent = -Math.abs(current);
+            }
+            
+            // Tampilkan angka saja tanpa desimal (sesuai UI mockup)
+            state.currentText = String.format(Locale.US, "%.0f", displayCurrent);
+            
+            // Track min/max
+            if (displayCurrent < minCurrent) {
+                minCurrent = displayCurrent;
+                state.minCurrentText = String.format("%.0f mA", minCurrent);
+            }
+            if (displayCurrent > maxCurrent) {
+                maxCurrent = displayCurrent;
+                state.maxCurrentText = String.format("%.0f mA", maxCurrent);
             }
+        } else {
+            state.currentText = "N/A";
         }
         
-        voltageEntries.add(new Entry(chartIndex, voltage));
-        if (voltageEntries.size() > MAX_CHART_ENTRIES) {
-            voltageEntries.remove(0);
+        // Update battery info
+        String statusText = charging ? "Charging" : "Not Charging";
+        if (power > 0) {
+            statusText += String.format(" (%.1f W)", power / 1000f);
         }
         
-        temperatureEntries.add(new Entry(chartIndex, temperature));
-        if (temperatureEntries.size() > MAX_CHART_ENTRIES) {
-            temperatureEntries.remove(0);
+        // Time to Full Calculation
+        boolean showTimeToFull = preferences.getBoolean("show_time_to_full", false);
+        if (showTimeToFull && charging && current > 0) {
+            int designCapacity = preferences.getInt("design_capacity", 4500);
+            if (level < 100) {
+                float remainingCapacity = (designCapacity * (100 - level)) / 100f;
+                float hours = remainingCapacity / current;
+                int minutes = (int) (hours * 60);
+                
+                String timeString;
+                if (minutes >= 60) {
+                    int h = minutes / 60;
+                    int m = minutes % 60;
+                    timeString = String.format(Locale.getDefault(), "%d h %d min", h, m);
+                } else {
+                    timeString = String.format(Locale.getDefault(), "%d min", minutes);
+                }
+                
+                statusText += "\n" + String.format(getString(R.string.time_remaining), timeString);
+            }
         }
         
-        levelEntries.add(new Entry(chartIndex, level));
-        if (levelEntries.size() > MAX_CHART_ENTRIES) {
-            levelEntries.remove(0);
-        }
+        state.statusText = statusText;
+        state.chargingType = snapshot.getChargingType();
+        state.levelText = level + "%";
+        state.health = snapshot.getHealth();
+        state.technology = snapshot.getTechnology();
+        state.capacityText = capacity + " mAh";
+        state.temperatureText = String.format("%.1f °C", temperature);
+        state.voltageText = String.format("%.3f V", voltage);
         
-        // Update chart data
-        if (isCurrentSupported) {
-            updateChartData(chartCurrent, currentEntries);
+        // Progress bar
+        int progress = 50; // Default middle
+        if (isCurrentSupported && maxCurrent > minCurrent) {
+            float displayCurrent = charging ? current : -current;
+            progress = (int) (((displayCurrent - minCurrent) / (maxCurrent - minCurrent)) * 100);
+            progress = Math.max(0, Math.min(100, progress));
         }
-        updateChartData(chartVoltage, voltageEntries);
-        updateChartData(chartTemperature, temperatureEntries);
-        updateChartData(chartLevel, levelEntries);
+        state.progress = progress;
+        
+        return state;
     }
     
     /**
-     * Update chart data
+     * Terapkan ViewState ke view (main thread)
      */
-    private void updateChartData(LineChart chart, List<Entry> entries) {
-        LineData data = chart.getData();
-        if (data != null && data.getDataSetCount() > 0) {
-            LineDataSet dataSet = (LineDataSet) data.getDataSetByIndex(0);
-            dataSet.setValues(new ArrayList<>(entries));
-            data.notifyDataChanged();
-            chart.notifyDataSetChanged();
-            chart.invalidate();
-        }
-    }
-    
-    // ===== Battery Reading Methods =====
-    
-    private float getCurrentNow() {
-        try {
-            int currentNow = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_NOW);
-            if (currentNow != Integer.MIN_VALUE && currentNow != 0) {
-                return autoScaleCurrent(currentNow);
-            }
-            int currentAvg = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_AVERAGE);
-            if (currentAvg != Integer.MIN_VALUE && currentAvg != 0) {
-                return autoScaleCurrent(currentAvg);
-            }
-            return 0f;
-        } catch (Exception e) {
-            return 0f;
-        }
-    }
-    
-    private float autoScaleCurrent(int currentRaw) {
-        float current = currentRaw;
-        // Phone uses at least 100-300mA. If raw value is < 10000, it's already in mA.
-        // If it's > 10000, it's in microAmperes (uA), so divide by 1000.
-        if (Math.abs(current) > 10000) {
-            return current / 1000f;
-        }
-        return current;
-    }
-    
-    private float getCurrentSmoothed() {
-        float rawCurrent = getCurrentNow();
-        currentSamples.add(rawCurrent);
-        if (currentSamples.size() > SAMPLE_SIZE) {
-            currentSamples.remove(0);
+    private void render(ViewState state) {
+        if (isFinishing()) return;
+        
+        tvCurrentMain.setText(state.currentText);
+        if (state.minCurrentText != null) {
+            tvMinCurrentLabel.setText(state.minCurrentText);
         }
-        float sum = 0f;
-        for (float sample : currentSamples) {
-            sum += sample;
+        if (state.maxCurrentText != null) {
+            tvMaxCurrentLabel.setText(state.maxCurrentText);
         }
-        return sum / currentSamples.size();
-    }
-    
-    private float getVoltageNow() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int voltage = batteryStatus.getIntExtra(BatteryManager.EXTRA_VOLTAGE, 0);
-                return voltage / 1000f;
-            }
-        } catch (Exception e) {}
-        return 0f;
-    }
-    
-    private float getTemperature() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int temp = batteryStatus.getIntExtra(BatteryManager.EXTRA_TEMPERATURE, 0);
-                return temp / 10f;
-            }
-        } catch (Exception e) {}
-        return 0f;
-    }
-    
-    private int getBatteryLevel() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
-                int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
-                return (int) ((level / (float) scale) * 100);
-            }
-        } catch (Exception e) {}
-        return 0;
-    }
-    
-    private String getChargingType() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int plugged = batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, -1);
-                switch (plugged) {
-                    case BatteryManager.BATTERY_PLUGGED_AC: return "AC Charger";
-                    case BatteryManager.BATTERY_PLUGGED_USB: return "USB";
-                    case BatteryManager.BATTERY_PLUGGED_WIRELESS: return "Wireless";
-                    default: return "Battery";
+        
+        tvStatus.setText(state.statusText);
+        tvChargingType.setText(state.chargingType);
+        tvLevel.setText(state.levelText);
+        tvHealth.setText(state.health);
+        tvTechnology.setText(state.technology);
+        tvCapacity.setText(state.capacityText);
+        tvTemperature.setText(state.temperatureText);
+        tvVoltage.setText(state.voltageText);
+        
+        // Update progress bar
+        android.widget.ProgressBar progressBar = findViewById(R.id.progressBarCurrent);
+        if (progressBar != null) {
+            progressBar.setProgress(state.progress);
+            
+            if (state.charging) {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                    progressBar.setProgressTintList(android.content.res.ColorStateList.valueOf(
+                        getResources().getColor(R.color.progress_charging, getTheme())
+                    ));
                 }
-            }
-        } catch (Exception e) {}
-        return "Unknown";
-    }
-    
-    private String getBatteryHealth() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int health = batteryStatus.getIntExtra(BatteryManager.EXTRA_HEALTH, -1);
-                switch (health) {
-                    case BatteryManager.BATTERY_HEALTH_GOOD: return "Good";
-                    case BatteryManager.BATTERY_HEALTH_OVERHEAT: return "Overheat";
-                    case BatteryManager.BATTERY_HEALTH_DEAD: return "Dead";
-                    case BatteryManager.BATTERY_HEALTH_OVER_VOLTAGE: return "Over Voltage";
-                    case BatteryManager.BATTERY_HEALTH_COLD: return "Cold";
-                    default: return "Unknown";
+            } else {
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                    progressBar.setProgressTintList(android.content.res.ColorStateList.valueOf(
+                        getResources().getColor(R.color.progress_discharging, getTheme())
+                    ));
                 }
             }
-        } catch (Exception e) {}
-        return "Unknown";
+        }
+        
+        // Update charts
+        for (int i = 0; i < state.chartVoltage.length; i++) {
+            addChartPoint(state.chartNanos[i], state.chartCurrent[i], state.chartVoltage[i],
+                    state.chartTemperature[i], state.chartLevel[i], state.currentSupported);
+        }
+        updateCharts(state.currentSupported);
     }
     
-    private String getBatteryTechnology() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                String tech = batteryStatus.getStringExtra(BatteryManager.EXTRA_TECHNOLOGY);
-                return tech != null ? tech : "Unknown";
+    /**
+     * Isi chart dari ring file sample terbaru yang ditulis SamplingEngine,
+     * sehingga chart langsung terisi saat activity dibuka. Map dan baca file di thread
+     * terpisah; titik dikirim ke main thread setelah selesai.
+     */
+    private void seedChartsFromRing() {
+        File file = new File(getFilesDir(), SampleRingFile.FILE_NAME);
+        new Thread(() -> {
+            long[] nanos = new long[MAX_CHART_ENTRIES];
+            float[] current = new float[MAX_CHART_ENTRIES];
+            float[] voltage = new float[MAX_CHART_ENTRIES];
+            float[] temperature = new float[MAX_CHART_ENTRIES];
+            float[] level = new float[MAX_CHART_ENTRIES];
+            int[] count = {0};
+            boolean[] hasCurrent = {false};
+            try {
+                SampleRingFile ring = SampleRingFile.openReadOnly(file);
+                if (ring == null) return;
+                
+                long now = SystemClock.elapsedRealtimeNanos();
+                ring.readLatest(MAX_CHART_ENTRIES, (timestamp, elapsedNanos, rawCurrent, currentSmoothed,
+                                                    rawVoltage, rawTemperature, rawLevel, status) -> {
+                    // Lewati data lama atau dari sebelum reboot
+                    if (elapsedNanos > now || now - elapsedNanos > CHART_SEED_MAX_AGE_NANOS) return;
+                    int i = count[0]++;
+                    nanos[i] = elapsedNanos;
+                    current[i] = currentSmoothed;
+                    voltage[i] = rawVoltage;
+                    temperature[i] = rawTemperature;
+                    level[i] = rawLevel;
+                    if (rawCurrent != 0) hasCurrent[0] = true;
+                });
+            } catch (IOException e) {
+                Log.e(TAG, "Error reading recent samples: " + e.getMessage());
+                return;
             }
-        } catch (Exception e) {}
-        return "Unknown";
+            if (count[0] == 0) return;
+            
+            mainHandler.post(() -> {
+                if (isDestroyed()) return;
+                // Titik yang lebih lama dari sample live yang sudah masuk diabaikan LiveTraceView
+                for (int i = 0; i < count[0]; i++) {
+                    addChartPoint(nanos[i], current[i], voltage[i], temperature[i], level[i], true);
+                }
+                updateCharts(hasCurrent[0]);
+            });
+        }, "VoltCheck-RingSeed").start();
     }
     
-    private int getBatteryCapacity() {
-        try {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                int capacity = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER);
-                if (capacity > 0) return capacity / 1000;
-            }
-            Object powerProfile = Class.forName("com.android.internal.os.PowerProfile")
-                    .getConstructor(Context.class).newInstance(this);
-            double batteryCapacity = (double) Class.forName("com.android.internal.os.PowerProfile")
-                    .getMethod("getBatteryCapacity").invoke(powerProfile);
-            return (int) batteryCapacity;
-        } catch (Exception e) {}
-        return 0;
+    /**
+     * Tambah satu titik ke semua chart; titik paling lama di ring buffer ditimpa
+     */
+    private void addChartPoint(long elapsedNanos, float current, float voltage, float temperature,
+                               float level, boolean currentSupported) {
+        if (currentSupported) {
+            chartCurrent.add(elapsedNanos, current);
+        }
+        chartVoltage.add(elapsedNanos, voltage);
+        chartTemperature.add(elapsedNanos, temperature);
+        chartLevel.add(elapsedNanos, level);
     }
     
-    private boolean isCharging() {
-        try {
-            IntentFilter filter = new IntentFilter(Intent.ACTION_BATTERY_CHANGED);
-            Intent batteryStatus = registerReceiver(null, filter);
-            if (batteryStatus != null) {
-                int status = batteryStatus.getIntExtra(BatteryManager.EXTRA_STATUS, -1);
-                return status == BatteryManager.BATTERY_STATUS_CHARGING ||
-                       status == BatteryManager.BATTERY_STATUS_FULL;
-            }
-        } catch (Exception e) {}
-        return false;
+    /**
+     * Jadwalkan redraw; scheduler menggabungkan per frame dan melewati chart yang tidak terlihat
+     */
+    private void updateCharts(boolean currentSupported) {
+        if (currentSupported) {
+            chartScheduler.markDirty(chartCurrent);
+        }
+        chartScheduler.markDirty(chartVoltage);
+        chartScheduler.markDirty(chartTemperature);
+        chartScheduler.markDirty(chartLevel);
     }
     
     // ===== Navigation Methods =====
@@ -611,6 +560,11 @@ public class MainActivity extends AppCompatActivity {
         startActivity(intent);
     }
     
+    private void openHistory() {
+        Intent intent = new Intent(this, HistoryActivity.class);
+        startActivity(intent);
+    }
+    
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.menu_main, menu);
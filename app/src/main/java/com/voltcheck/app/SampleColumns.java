@@ -0,0 +1,37 @@
+package com.voltcheck.app;
+
+import java.util.Arrays;
+
+/**
+ * Kolom primitif timestamp, arus dan tegangan untuk chart history; tumbuh dua kali lipat saat penuh
+ */
+final class SampleColumns {
+
+    long[] times = new long[1024];
+    float[] current = new float[1024];
+    float[] voltage = new float[1024];
+    int size = 0;
+
+    void add(long timestamp, float currentValue, float voltageValue) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            current = Arrays.copyOf(current, size * 2);
+            voltage = Arrays.copyOf(voltage, size * 2);
+        }
+        times[size] = timestamp;
+        current[size] = currentValue;
+        voltage[size] = voltageValue;
+        size++;
+    }
+
+    /**
+     * Timestamp sebagai detik sejak origin, untuk sumbu x chart
+     */
+    float[] secondsSince(long origin) {
+        float[] seconds = new float[size];
+        for (int i = 0; i < size; i++) {
+            seconds[i] = (times[i] - origin) / 1000f;
+        }
+        return seconds;
+    }
+}
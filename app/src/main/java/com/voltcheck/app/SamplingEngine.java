@@ -0,0 +1,306 @@
+package com.voltcheck.app;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.os.BatteryManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.PowerManager;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.voltcheck.app.utils.AdaptiveSampleScheduler;
+import com.voltcheck.app.utils.BatteryDataLogger;
+import com.voltcheck.app.utils.BatterySnapshot;
+import com.voltcheck.app.utils.BatteryStateTracker;
+import com.voltcheck.app.utils.DeviceCapabilities;
+import com.voltcheck.app.utils.FixedRateTicker;
+import com.voltcheck.app.utils.FloatRingBuffer;
+import com.voltcheck.app.utils.SampleRingFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Engine sampling tunggal yang dimiliki BatteryService.
+ * Membaca sensor sekali per tick lalu mem-publish sample ke semua subscriber
+ * (service untuk alert, MainActivity untuk tampilan) secara batch.
+ * Akuisisi dan callback subscriber berjalan di HandlerThread sendiri, bukan main Looper.
+ * Selama ada subscriber non-adaptif (UI) interval tetap mengikuti Settings; jika hanya
+ * subscriber adaptif (alert background) yang aktif, interval diatur AdaptiveSampleScheduler.
+ */
+public class SamplingEngine {
+
+    private static final String TAG = "SamplingEngine";
+    private static final int SMOOTHING_SIZE = 5; // Jumlah sample untuk averaging
+
+    /**
+     * Subscriber menerima sample secara batch, urut dari yang paling lama.
+     * Dipanggil di thread sampling; post sendiri ke main thread jika perlu menyentuh UI.
+     * List batch dipakai ulang oleh engine, jangan disimpan setelah callback selesai.
+     */
+    public interface Listener {
+        void onSamples(List<BatterySample> batch);
+    }
+
+    private static class Subscription {
+        final Listener listener;
+        final long batchMillis;
+        final boolean adaptive;
+        final List<BatterySample> pending = new ArrayList<>();
+        final List<BatterySample> pendingView = Collections.unmodifiableList(pending);
+        long lastDelivery = 0;
+
+        Subscription(Listener listener, long batchMillis, boolean adaptive) {
+            this.listener = listener;
+            this.batchMillis = batchMillis;
+            this.adaptive = adaptive;
+        }
+    }
+
+    private final Context context;
+    private final BatteryManager batteryManager;
+    private final DeviceCapabilities capabilities;
+    private final HandlerThread thread;
+    private final Handler handler;
+    private final FixedRateTicker ticker;
+    private final BatteryStateTracker batteryStateTracker;
+    private final AdaptiveSampleScheduler scheduler = new AdaptiveSampleScheduler();
+    private final SharedPreferences preferences;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final FloatRingBuffer smoothingSamples = new FloatRingBuffer(SMOOTHING_SIZE);
+    private SampleRingFile recentSamples; // null jika file tidak bisa di-map
+
+    private long interval;
+    private boolean running = false;
+
+    private final BroadcastReceiver screenReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            boolean screenOn = Intent.ACTION_SCREEN_ON.equals(intent.getAction());
+            scheduler.setScreenOn(screenOn);
+            if (screenOn && running) {
+                // Batas interval turun, deadline berikutnya dihitung ulang
+                ticker.setPeriod(getPeriod());
+            }
+        }
+    };
+
+    public SamplingEngine(Context context) {
+        this.context = context.getApplicationContext();
+        this.batteryManager = (BatteryManager) this.context.getSystemService(Context.BATTERY_SERVICE);
+        this.capabilities = DeviceCapabilities.get(this.context);
+        this.thread = new HandlerThread("VoltCheck-Sampling", Process.THREAD_PRIORITY_BACKGROUND);
+        this.thread.start();
+        this.handler = new Handler(thread.getLooper());
+        this.ticker = new FixedRateTicker(handler, this::onTick);
+        this.preferences = this.context.getSharedPreferences("VoltCheckSettings", Context.MODE_PRIVATE);
+        this.interval = SettingsActivity.getRefreshInterval(this.context);
+        try {
+            this.recentSamples = SampleRingFile.openWritable(
+                    new File(this.context.getFilesDir(), SampleRingFile.FILE_NAME), SampleRingFile.DEFAULT_CAPACITY);
+        } catch (IOException e) {
+            Log.e(TAG, "Error mapping recent sample ring: " + e.getMessage());
+        }
+        this.batteryStateTracker = new BatteryStateTracker(this.context, (snapshot, chargingChanged) -> {
+            // Perubahan status charging langsung di-publish tanpa menunggu tick berikutnya
+            if (chargingChanged && running) {
+                scheduler.reset();
+                ticker.setPeriod(getPeriod());
+                ticker.tickNow();
+            }
+        }, handler);
+    }
+
+    /**
+     * Mendaftarkan subscriber dengan interval tetap dari Settings.
+     * batchMillis = 0 berarti setiap sample langsung dikirim
+     */
+    public void subscribe(Listener listener, long batchMillis) {
+        subscribe(listener, batchMillis, false);
+    }
+
+    /**
+     * @param adaptive true jika subscriber menerima interval adaptif (monitoring background)
+     */
+    public void subscribe(Listener listener, long batchMillis, boolean adaptive) {
+        handler.post(() -> subscribeInternal(listener, batchMillis, adaptive));
+    }
+
+    public void unsubscribe(Listener listener) {
+        handler.post(() -> unsubscribeInternal(listener));
+    }
+
+    /**
+     * Menghentikan engine sepenuhnya (dipanggil saat service destroy)
+     */
+    public void shutdown() {
+        handler.post(() -> {
+            subscriptions.clear();
+            stop();
+        });
+        thread.quitSafely();
+    }
+
+    /**
+     * Handler thread sampling, untuk pekerjaan subscriber yang harus serial dengan akuisisi
+     */
+    public Handler getHandler() {
+        return handler;
+    }
+
+    private void subscribeInternal(Listener listener, long batchMillis, boolean adaptive) {
+        unsubscribeInternal(listener);
+        subscriptions.add(new Subscription(listener, batchMillis, adaptive));
+
+        // Interval bisa berubah dari Settings sejak subscriber terakhir
+        interval = SettingsActivity.getRefreshInterval(context);
+        scheduler.setBaseInterval(interval);
+        if (!running) {
+            start();
+        } else if (!adaptive) {
+            // Subscriber UI langsung mendapat sample baru, jadwal adaptif yang panjang dibatalkan
+            ticker.setPeriod(interval);
+            ticker.tickNow();
+        }
+    }
+
+    private void unsubscribeInternal(Listener listener) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.listener == listener) {
+                subscriptions.remove(subscription);
+            }
+        }
+        if (subscriptions.isEmpty()) {
+            stop();
+        }
+    }
+
+    private void start() {
+        if (running) return;
+        running = true;
+        batteryStateTracker.start();
+
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        scheduler.setScreenOn(powerManager == null || powerManager.isInteractive());
+        IntentFilter screenFilter = new IntentFilter(Intent.ACTION_SCREEN_ON);
+        screenFilter.addAction(Intent.ACTION_SCREEN_OFF);
+        context.registerReceiver(screenReceiver, screenFilter, null, handler);
+
+        scheduler.reset();
+        ticker.resetMetrics();
+        ticker.start(getPeriod());
+        Log.d(TAG, "Sampling started, interval " + interval + " ms");
+    }
+
+    private void stop() {
+        if (!running) return;
+        running = false;
+        ticker.stop();
+        Log.d(TAG, "Tick metrics: " + ticker.getMetrics());
+        batteryStateTracker.stop();
+        try {
+            context.unregisterReceiver(screenReceiver);
+        } catch (Exception e) {}
+        smoothingSamples.clear();
+        Log.d(TAG, "Sampling stopped");
+    }
+
+    /**
+     * Metrik jitter dan lateness scheduler sejak sampling terakhir dimulai.
+     * Nilai dibaca tanpa sinkronisasi, cukup untuk diagnostik
+     */
+    public FixedRateTicker.Metrics getTickMetrics() {
+        return ticker.getMetrics();
+    }
+
+    /**
+     * Periode tick: interval Settings selama ada subscriber UI, selain itu interval adaptif
+     */
+    private long getPeriod() {
+        return hasFixedSubscriber() ? interval : scheduler.getInterval();
+    }
+
+    private void onTick(long tickNanos) {
+        acquire(tickNanos);
+        ticker.setPeriod(getPeriod());
+    }
+
+    /**
+     * Satu tick akuisisi: snapshot dari broadcast + satu pembacaan arus dari property yang didukung
+     */
+    private void acquire(long tickNanos) {
+        try {
+            BatterySnapshot snapshot = batteryStateTracker.getLatest();
+            float current = capabilities.readCurrent(batteryManager);
+
+            smoothingSamples.push(current);
+            float smoothed = smoothingSamples.mean();
+
+            BatterySample sample = new BatterySample(System.currentTimeMillis(), tickNanos, current, smoothed, snapshot);
+            if (recentSamples != null) {
+                recentSamples.append(sample.timestamp, tickNanos, current, smoothed,
+                        snapshot.voltage, snapshot.temperature, snapshot.level, snapshot.status);
+            }
+            BatteryDataLogger.logData(context, sample.timestamp, current, snapshot.voltage,
+                    snapshot.temperature, snapshot.level, snapshot.status);
+            updateSchedule(sample);
+            publish(sample);
+        } catch (Exception e) {
+            Log.e(TAG, "Error acquiring sample: " + e.getMessage());
+        }
+    }
+
+    private boolean hasFixedSubscriber() {
+        for (Subscription subscription : subscriptions) {
+            if (!subscription.adaptive) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Perbarui threshold alert dari Settings lalu hitung interval adaptif berikutnya
+     */
+    private void updateSchedule(BatterySample sample) {
+        float highTemp = preferences.getBoolean("alert_temperature", true)
+                ? preferences.getFloat("threshold_high_temp", 45f) : Float.MAX_VALUE;
+        // Alert level berikutnya yang belum terlewati
+        int level = sample.getLevel();
+        int levelThreshold = Integer.MAX_VALUE;
+        if (preferences.getBoolean("alarm_full_charge", false)) {
+            int alarmLevel = preferences.getInt("alarm_level", 100);
+            if (alarmLevel >= level) levelThreshold = alarmLevel;
+        }
+        if (preferences.getBoolean("alert_almost_full", false) && 80 >= level) {
+            levelThreshold = Math.min(levelThreshold, 80);
+        }
+        scheduler.setAlertThresholds(highTemp, levelThreshold);
+        scheduler.onSample(sample.current, sample.getTemperature(), level, sample.isCharging());
+    }
+
+    private void publish(BatterySample sample) {
+        long now = SystemClock.elapsedRealtime();
+        for (Subscription subscription : subscriptions) {
+            subscription.pending.add(sample);
+            if (now - subscription.lastDelivery >= subscription.batchMillis) {
+                subscription.lastDelivery = now;
+                try {
+                    subscription.listener.onSamples(subscription.pendingView);
+                } catch (Exception e) {
+                    Log.e(TAG, "Subscriber error: " + e.getMessage());
+                }
+                subscription.pending.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.voltcheck.app;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.ProgressBar;
+
+import androidx.appcompat.app.AlertDialog;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.content.ContextCompat;
+
+import com.github.mikephil.charting.charts.LineChart;
+import com.github.mikephil.charting.components.XAxis;
+import com.github.mikephil.charting.components.YAxis;
+import com.github.mikephil.charting.data.Entry;
+import com.github.mikephil.charting.data.LineData;
+import com.github.mikephil.charting.data.LineDataSet;
+import com.github.mikephil.charting.formatter.ValueFormatter;
+import com.google.android.material.dialog.MaterialAlertDialogBuilder;
+import com.voltcheck.app.data.SessionStats;
+import com.voltcheck.app.utils.BatteryDataLogger;
+import com.voltcheck.app.utils.Downsampler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+/**
+ * Dialog chart arus dan tegangan satu sesi dari history. Sample sesi dibaca ke array primitif
+ * lalu dikurangi ke kira-kira lebar chart dalam pixel sebelum dibuat Entry:
+ * arus memakai min/max per bucket (lonjakan tetap terlihat), tegangan memakai LTTB.
+ */
+final class SessionChartDialog {
+
+    private SessionChartDialog() {}
+
+    static void show(AppCompatActivity activity, Executor executor, SessionStats session, String title) {
+        View view = LayoutInflater.from(activity).inflate(R.layout.dialog_session_chart, null);
+        LineChart chart = view.findViewById(R.id.chartSession);
+        ProgressBar progress = view.findViewById(R.id.progressSessionChart);
+        setupChart(activity, chart);
+
+        AlertDialog dialog = new MaterialAlertDialogBuilder(activity)
+            .setTitle(title)
+            .setView(view)
+            .setPositiveButton("OK", null)
+            .show();
+
+        int maxPoints = Math.max(activity.getResources().getDisplayMetrics().widthPixels, 100);
+        executor.execute(() -> {
+            LineData data = load(activity, session, maxPoints);
+            activity.runOnUiThread(() -> {
+                if (!dialog.isShowing()) return;
+                progress.setVisibility(View.GONE);
+                chart.setData(data);
+                chart.invalidate();
+            });
+        });
+    }
+
+    /**
+     * Baca sample sesi dan bangun dataset yang sudah di-downsample
+     */
+    private static LineData load(AppCompatActivity activity, SessionStats session, int maxPoints) {
+        SampleColumns columns = new SampleColumns();
+        BatteryDataLogger.readDataLog(activity, session.startTime, session.endTime + 1,
+                (timestamp, current, voltage, temperature, level, status) -> columns.add(timestamp, current, voltage));
+        float[] x = columns.secondsSince(session.startTime);
+
+        int[] indices = new int[2 * maxPoints + 2];
+        int count = Downsampler.minMax(x, columns.current, 0, columns.size, maxPoints / 2, indices);
+        LineDataSet currentSet = createDataSet(toEntries(x, columns.current, indices, count),
+                "Arus (mA)", ContextCompat.getColor(activity, R.color.warning), YAxis.AxisDependency.LEFT);
+
+        count = Downsampler.largestTriangleThreeBuckets(x, columns.voltage, 0, columns.size, maxPoints, indices);
+        LineDataSet voltageSet = createDataSet(toEntries(x, columns.voltage, indices, count),
+                "Tegangan (V)", ContextCompat.getColor(activity, R.color.success), YAxis.AxisDependency.RIGHT);
+
+        return new LineData(currentSet, voltageSet);
+    }
+
+    private static List<Entry> toEntries(float[] x, float[] y, int[] indices, int count) {
+        List<Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new Entry(x[indices[i]], y[indices[i]]));
+        }
+        return entries;
+    }
+
+    private static LineDataSet createDataSet(List<Entry> entries, String label, int color,
+                                             YAxis.AxisDependency axis) {
+        LineDataSet dataSet = new LineDataSet(entries, label);
+        dataSet.setAxisDependency(axis);
+        dataSet.setColor(color);
+        dataSet.setLineWidth(1.5f);
+        dataSet.setDrawCircles(false);
+        dataSet.setDrawValues(false);
+        dataSet.setHighlightEnabled(false);
+        return dataSet;
+    }
+
+    private static void setupChart(AppCompatActivity activity, LineChart chart) {
+        int textColor = ContextCompat.getColor(activity, R.color.gray_text);
+        chart.getDescription().setEnabled(false);
+        chart.setDrawGridBackground(false);
+        chart.setNoDataText("");
+        chart.getLegend().setTextColor(textColor);
+
+        XAxis xAxis = chart.getXAxis();
+        xAxis.setPosition(XAxis.XAxisPosition.BOTTOM);
+        xAxis.setTextColor(textColor);
+        xAxis.setDrawGridLines(false);
+        xAxis.setValueFormatter(new ValueFormatter() {
+            @Override
+            public String getFormattedValue(float value) {
+                return String.format(Locale.getDefault(), "%.0f min", value / 60f);
+            }
+        });
+
+        chart.getAxisLeft().setTextColor(textColor);
+        chart.getAxisRight().setTextColor(textColor);
+        chart.getAxisRight().setDrawGridLines(false);
+    }
+}
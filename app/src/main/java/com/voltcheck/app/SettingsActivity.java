@@ -21,18 +21,13 @@ import android.text.TextWatcher;
 import android.text.Editable;
 import com.google.android.material.slider.Slider;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.SwitchCompat;
 
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-
 import com.voltcheck.app.utils.LocaleHelper;
 import com.voltcheck.app.utils.BatteryDataLogger;
 
@@ -72,6 +67,8 @@ public class SettingsActivity extends AppCompatActivity {
     // UI Components - Data
     private SwitchCompat switchSessionSummary;
     // btnExportData removed - now using LinearLayout directly
+    private final ActivityResultLauncher<String> exportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("text/csv"), uri -> CsvExportDialog.start(this, uri));
     
     // UI Components - Permissions
     private SwitchCompat switchBackgroundService;
@@ -546,7 +543,9 @@ public class SettingsActivity extends AppCompatActivity {
             Toast.makeText(this, "Session summary " + (isChecked ? "enabled" : "disabled"), Toast.LENGTH_SHORT).show();
         });
         
-        // Export Data Click - already added above in new listeners section
+        // Export Data Click
+        findViewById(R.id.itemExportData).setOnClickListener(v ->
+                exportLauncher.launch(CsvExportDialog.suggestedFileName()));
         
         // Permissions - Battery Optimization
         findViewById(R.id.btnBatteryOptimization).setOnClickListener(v -> {
@@ -562,10 +561,6 @@ public class SettingsActivity extends AppCompatActivity {
         findViewById(R.id.btnPrivacyPolicy).setOnClickListener(v -> showPrivacyPolicy());
     }
     
-    /**
-     * Export data to CSV
-     */
-
     /**
      * Show change log dialog
      */
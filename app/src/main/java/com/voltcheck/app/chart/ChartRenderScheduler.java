@@ -0,0 +1,141 @@
+package com.voltcheck.app.chart;
+
+import android.graphics.Rect;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Menggabungkan perubahan data chart menjadi paling banyak satu redraw per frame Choreographer.
+ * Chart yang tidak terlihat (GONE atau di luar viewport scroll) tetap ditandai dirty dan baru
+ * digambar saat kembali terlihat. Setiap chart punya interval redraw minimum sendiri, sehingga
+ * sinyal yang lambat berubah (misal level) tidak digambar ulang setiap tick.
+ * Semua method dipanggil di main thread.
+ */
+public final class ChartRenderScheduler implements Choreographer.FrameCallback {
+
+    private static final class Target {
+        final View chart;
+        final long minIntervalMillis;
+        boolean dirty = false;
+        long lastDrawMillis = 0;
+
+        Target(View chart, long minIntervalMillis) {
+            this.chart = chart;
+            this.minIntervalMillis = minIntervalMillis;
+        }
+    }
+
+    private final List<Target> targets = new ArrayList<>();
+    private final Rect visibleRect = new Rect();
+    private boolean frameScheduled = false;
+    private boolean frameDelayed = false;   // Callback yang terjadwal adalah callback tertunda (throttle)
+    private boolean released = false;
+
+    // Chart yang dirty bisa jadi terlihat karena scroll atau perubahan layout
+    private final ViewTreeObserver.OnScrollChangedListener scrollListener = this::scheduleIfDirty;
+    private final ViewTreeObserver.OnGlobalLayoutListener layoutListener = this::scheduleIfDirty;
+
+    /**
+     * Daftarkan chart
+     *
+     * @param minIntervalMillis jarak minimum antar redraw, 0 = setiap frame yang ada perubahan
+     */
+    public void register(View chart, long minIntervalMillis) {
+        if (targets.isEmpty()) {
+            ViewTreeObserver observer = chart.getViewTreeObserver();
+            observer.addOnScrollChangedListener(scrollListener);
+            observer.addOnGlobalLayoutListener(layoutListener);
+        }
+        targets.add(new Target(chart, minIntervalMillis));
+    }
+
+    /**
+     * Tandai data chart berubah; redraw dijadwalkan ke frame berikutnya
+     */
+    public void markDirty(View chart) {
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            if (target.chart == chart) {
+                target.dirty = true;
+                scheduleFrame();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lepas callback dan listener, misalnya di onDestroy
+     */
+    public void release() {
+        released = true;
+        Choreographer.getInstance().removeFrameCallback(this);
+        frameScheduled = false;
+        frameDelayed = false;
+        if (!targets.isEmpty()) {
+            ViewTreeObserver observer = targets.get(0).chart.getViewTreeObserver();
+            if (observer.isAlive()) {
+                observer.removeOnScrollChangedListener(scrollListener);
+                observer.removeOnGlobalLayoutListener(layoutListener);
+            }
+        }
+        targets.clear();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        frameScheduled = false;
+        frameDelayed = false;
+        long now = SystemClock.uptimeMillis();
+        long nextDelay = Long.MAX_VALUE;
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            if (!target.dirty || !isVisible(target.chart)) {
+                continue;
+            }
+            long wait = target.lastDrawMillis + target.minIntervalMillis - now;
+            if (wait > 0) {
+                nextDelay = Math.min(nextDelay, wait);
+                continue;
+            }
+            target.dirty = false;
+            target.lastDrawMillis = now;
+            target.chart.invalidate();
+        }
+        if (nextDelay != Long.MAX_VALUE) {
+            // Chart yang masih dalam interval minimum digambar di frame setelah jedanya habis
+            frameScheduled = true;
+            frameDelayed = true;
+            Choreographer.getInstance().postFrameCallbackDelayed(this, nextDelay);
+        }
+    }
+
+    private boolean isVisible(View chart) {
+        return chart.isShown() && chart.getLocalVisibleRect(visibleRect);
+    }
+
+    private void scheduleIfDirty() {
+        for (int i = 0; i < targets.size(); i++) {
+            if (targets.get(i).dirty) {
+                scheduleFrame();
+                return;
+            }
+        }
+    }
+
+    private void scheduleFrame() {
+        if (released || (frameScheduled && !frameDelayed)) return;
+        Choreographer choreographer = Choreographer.getInstance();
+        if (frameDelayed) {
+            // Perubahan baru tidak boleh menunggu chart lain yang sedang di-throttle
+            choreographer.removeFrameCallback(this);
+            frameDelayed = false;
+        }
+        frameScheduled = true;
+        choreographer.postFrameCallback(this);
+    }
+}
@@ -0,0 +1,232 @@
+package com.voltcheck.app.chart;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+import com.voltcheck.app.utils.FloatRingBuffer;
+import com.voltcheck.app.utils.LongRingBuffer;
+import com.voltcheck.app.utils.WindowedStats;
+
+import java.util.Locale;
+
+/**
+ * Chart garis ringan untuk satu sinyal live (arus, tegangan, suhu, level).
+ * Sample disimpan di ring buffer primitif; Path disimpan dalam satuan data (detik, nilai mentah)
+ * dan hanya ditambah lineTo per sample. Scroll dan skala Y cukup lewat Matrix saat onDraw,
+ * jadi tidak ada objek per titik dan tidak ada perhitungan ulang seluruh data.
+ * Semua method dipanggil di main thread; redraw diatur pemanggil (misal ChartRenderScheduler).
+ */
+public class LiveTraceView extends View {
+
+    private static final int DEFAULT_CAPACITY = 500;
+    private static final long DEFAULT_WINDOW_NANOS = 60L * 1000000000L;
+    private static final int GRID_LINES = 3;
+
+    private FloatRingBuffer values;
+    private LongRingBuffer times;
+    private WindowedStats range;        // Min/max Y window, O(1) per sample
+    private long windowNanos = DEFAULT_WINDOW_NANOS;
+    private float minRange = 1f;        // Rentang Y minimum agar sinyal datar tidak terlihat seperti noise
+
+    // Path dalam satuan data: x = detik sejak pathOriginNanos, y = nilai.
+    // Titik lama tetap di Path (terpotong clip) sampai dibangun ulang setelah capacity/4 sample.
+    private final Path dataPath = new Path();
+    private final Path drawPath = new Path();
+    private final Matrix matrix = new Matrix();
+    private long pathOriginNanos;
+    private int pathPoints = 0;
+    private boolean pathValid = false;
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint gridPaint = new Paint();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private String label = "";
+
+    // Teks sumbu hanya diformat ulang saat nilainya berubah
+    private float shownMin = Float.NaN;
+    private float shownMax = Float.NaN;
+    private String minText = "";
+    private String maxText = "";
+
+    public LiveTraceView(Context context) {
+        this(context, null);
+    }
+
+    public LiveTraceView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public LiveTraceView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        setCapacity(DEFAULT_CAPACITY);
+
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(dp(2f));
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+
+        gridPaint.setStrokeWidth(dp(1f));
+        gridPaint.setColor(Color.argb(50, 255, 255, 255));
+
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 11f,
+                getResources().getDisplayMetrics()));
+    }
+
+    /**
+     * Jumlah titik maksimum; data yang ada dibuang
+     */
+    public void setCapacity(int capacity) {
+        values = new FloatRingBuffer(capacity);
+        times = new LongRingBuffer(capacity);
+        range = new WindowedStats(capacity);
+        invalidatePath();
+    }
+
+    /**
+     * Lebar sumbu X; titik yang lebih lama dari window terpotong di tepi kiri
+     */
+    public void setTimeWindow(long windowMillis) {
+        windowNanos = Math.max(windowMillis, 1) * 1000000L;
+    }
+
+    public void setLineColor(int color) {
+        linePaint.setColor(color);
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public void setMinRange(float minRange) {
+        this.minRange = minRange;
+    }
+
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Tambah satu sample; sample yang lebih lama dari sample terakhir diabaikan
+     *
+     * @param timeNanos waktu elapsed realtime sample
+     */
+    public void add(long timeNanos, float value) {
+        if (!times.isEmpty() && timeNanos < times.last()) return;
+        values.push(value);
+        times.push(timeNanos);
+        range.push(value);
+
+        if (!pathValid) return;
+        if (pathPoints >= values.capacity() + values.capacity() / 4) {
+            invalidatePath();
+        } else {
+            dataPath.lineTo(toPathX(timeNanos), value);
+            pathPoints++;
+        }
+    }
+
+    public void clear() {
+        values.clear();
+        times.clear();
+        range.clear();
+        invalidatePath();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        float left = getPaddingLeft();
+        float top = getPaddingTop();
+        float right = getWidth() - getPaddingRight();
+        float bottom = getHeight() - getPaddingBottom();
+        float plotWidth = right - left;
+        float plotHeight = bottom - top;
+        if (plotWidth <= 0 || plotHeight <= 0) return;
+
+        for (int i = 0; i < GRID_LINES; i++) {
+            float y = top + plotHeight * i / (GRID_LINES - 1);
+            canvas.drawLine(left, y, right, y, gridPaint);
+        }
+
+        float textHeight = -textPaint.ascent();
+        canvas.drawText(label, left, top + textHeight, textPaint);
+        if (values.isEmpty()) return;
+
+        if (!pathValid) rebuildPath();
+
+        // Rentang Y dengan margin 10%, minimal minRange
+        float min = range.getMin();
+        float max = range.getMax();
+        float span = Math.max(max - min, minRange);
+        float center = (min + max) / 2f;
+        float yMin = center - span * 0.6f;
+        float yMax = center + span * 0.6f;
+        updateAxisText(yMin, yMax);
+
+        // Titik terbaru di tepi kanan; scroll = geser offset X
+        float pxPerSecond = plotWidth / (windowNanos / 1e9f);
+        float pxPerUnit = plotHeight / (yMax - yMin);
+        matrix.setScale(pxPerSecond, -pxPerUnit);
+        matrix.postTranslate(right - toPathX(times.last()) * pxPerSecond, bottom + yMin * pxPerUnit);
+        dataPath.transform(matrix, drawPath);
+
+        int save = canvas.save();
+        canvas.clipRect(left, top, right, bottom);
+        canvas.drawPath(drawPath, linePaint);
+        canvas.restoreToCount(save);
+
+        float maxWidth = textPaint.measureText(maxText);
+        canvas.drawText(maxText, right - maxWidth, top + textHeight, textPaint);
+        float minWidth = textPaint.measureText(minText);
+        canvas.drawText(minText, right - minWidth, bottom - textPaint.descent(), textPaint);
+    }
+
+    private void rebuildPath() {
+        dataPath.rewind();
+        pathOriginNanos = times.first();
+        int size = values.size();
+        dataPath.moveTo(0f, values.get(0));
+        for (int i = 1; i < size; i++) {
+            dataPath.lineTo(toPathX(times.get(i)), values.get(i));
+        }
+        pathPoints = size;
+        pathValid = true;
+    }
+
+    private void invalidatePath() {
+        pathValid = false;
+        pathPoints = 0;
+    }
+
+    private float toPathX(long timeNanos) {
+        return (timeNanos - pathOriginNanos) / 1e9f;
+    }
+
+    private void updateAxisText(float yMin, float yMax) {
+        if (yMin != shownMin) {
+            shownMin = yMin;
+            minText = formatValue(yMin);
+        }
+        if (yMax != shownMax) {
+            shownMax = yMax;
+            maxText = formatValue(yMax);
+        }
+    }
+
+    private static String formatValue(float value) {
+        return Math.abs(value) >= 100f
+                ? String.format(Locale.getDefault(), "%.0f", value)
+                : String.format(Locale.getDefault(), "%.2f", value);
+    }
+
+    private float dp(float value) {
+        return value * getResources().getDisplayMetrics().density;
+    }
+}
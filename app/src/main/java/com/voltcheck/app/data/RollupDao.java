@@ -0,0 +1,38 @@
+package com.voltcheck.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface RollupDao {
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(RollupEntity rollup);
+
+    @Query("SELECT * FROM rollups WHERE resolution = :resolution AND bucket_start = :bucketStart")
+    RollupEntity get(long resolution, long bucketStart);
+
+    /**
+     * Bucket dalam rentang [from, to) untuk satu tier, urut waktu
+     */
+    @Query("SELECT * FROM rollups WHERE resolution = :resolution "
+            + "AND bucket_start >= :from AND bucket_start < :to ORDER BY bucket_start")
+    List<RollupEntity> getRange(long resolution, long from, long to);
+
+    /**
+     * Hapus bucket satu tier dengan bucket_start di [from, to)
+     */
+    @Query("DELETE FROM rollups WHERE resolution = :resolution "
+            + "AND bucket_start >= :from AND bucket_start < :to")
+    void deleteRange(long resolution, long from, long to);
+
+    @Query("DELETE FROM rollups WHERE resolution = :resolution AND bucket_start < :before")
+    int deleteOlderThan(long resolution, long before);
+
+    @Query("DELETE FROM rollups")
+    void deleteAll();
+}
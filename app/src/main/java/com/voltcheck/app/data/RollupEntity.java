@@ -0,0 +1,83 @@
+package com.voltcheck.app.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Ringkasan sample per bucket waktu (tier 1 menit dan 1 jam).
+ * Diperbarui inkremental oleh RollupWriter setiap sample masuk.
+ */
+@Entity(tableName = "rollups", primaryKeys = {"resolution", "bucket_start"})
+public class RollupEntity {
+
+    public long resolution;         // Lebar bucket, millis
+
+    @ColumnInfo(name = "bucket_start")
+    public long bucketStart;        // epoch millis
+
+    public int count;
+
+    @ColumnInfo(name = "current_min")
+    public float currentMin;
+    @ColumnInfo(name = "current_max")
+    public float currentMax;
+    @ColumnInfo(name = "current_mean")
+    public float currentMean;
+
+    @ColumnInfo(name = "voltage_min")
+    public float voltageMin;
+    @ColumnInfo(name = "voltage_max")
+    public float voltageMax;
+    @ColumnInfo(name = "voltage_mean")
+    public float voltageMean;
+
+    @ColumnInfo(name = "temperature_min")
+    public float temperatureMin;
+    @ColumnInfo(name = "temperature_max")
+    public float temperatureMax;
+    @ColumnInfo(name = "temperature_mean")
+    public float temperatureMean;
+
+    @ColumnInfo(name = "level_min")
+    public int levelMin;
+    @ColumnInfo(name = "level_max")
+    public int levelMax;
+
+    @ColumnInfo(name = "charge_mah")
+    public float chargeMah;         // Muatan terintegrasi, positif = masuk ke baterai
+
+    @ColumnInfo(name = "energy_mwh")
+    public float energyMwh;         // Energi terintegrasi, positif = masuk ke baterai
+
+    public RollupEntity(long resolution, long bucketStart) {
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * Tambahkan satu sample beserta muatan/energi sejak sample sebelumnya
+     */
+    public void add(SampleEntity sample, float chargeDelta, float energyDelta) {
+        if (count == 0) {
+            currentMin = currentMax = sample.current;
+            voltageMin = voltageMax = sample.voltage;
+            temperatureMin = temperatureMax = sample.temperature;
+            levelMin = levelMax = sample.level;
+        } else {
+            currentMin = Math.min(currentMin, sample.current);
+            currentMax = Math.max(currentMax, sample.current);
+            voltageMin = Math.min(voltageMin, sample.voltage);
+            voltageMax = Math.max(voltageMax, sample.voltage);
+            temperatureMin = Math.min(temperatureMin, sample.temperature);
+            temperatureMax = Math.max(temperatureMax, sample.temperature);
+            levelMin = Math.min(levelMin, sample.level);
+            levelMax = Math.max(levelMax, sample.level);
+        }
+        count++;
+        currentMean += (sample.current - currentMean) / count;
+        voltageMean += (sample.voltage - voltageMean) / count;
+        temperatureMean += (sample.temperature - temperatureMean) / count;
+        chargeMah += chargeDelta;
+        energyMwh += energyDelta;
+    }
+}
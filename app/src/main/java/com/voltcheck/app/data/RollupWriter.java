@@ -0,0 +1,170 @@
+package com.voltcheck.app.data;
+
+import java.util.List;
+
+/**
+ * Memelihara tier rollup (1 menit, 1 jam) dan ringkasan sesi secara inkremental
+ * saat sample masuk. Bucket yang sedang berjalan disimpan di memori dan di-upsert
+ * setiap persist(), sehingga tidak pernah ada hitung ulang dari data mentah.
+ * Tidak thread-safe; dipakai di thread logger saja.
+ */
+public class RollupWriter {
+
+    public static final long MINUTE = 60 * 1000L;
+    public static final long HOUR = 60 * MINUTE;
+
+    // Jeda lebih dari ini tidak diintegrasikan (logging berhenti, bukan arus nol)
+    private static final long MAX_INTEGRATION_GAP_MILLIS = 5 * MINUTE;
+    private static final double MILLIS_PER_HOUR = 3600000.0;
+
+    private final VoltCheckDatabase database;
+
+    private RollupEntity minute;
+    private RollupEntity hour;
+    private SessionSummaryEntity session;
+
+    private final Integrator integrator = new Integrator();
+
+    public RollupWriter(VoltCheckDatabase database) {
+        this.database = database;
+    }
+
+    /**
+     * Tambahkan sample (sessionId sudah terisi) ke semua tier
+     */
+    public void add(SampleEntity sample) {
+        integrator.add(sample);
+        float chargeDelta = integrator.chargeDelta;
+        float energyDelta = integrator.energyDelta;
+
+        minute = advance(minute, MINUTE, sample.timestamp);
+        minute.add(sample, chargeDelta, energyDelta);
+        hour = advance(hour, HOUR, sample.timestamp);
+        hour.add(sample, chargeDelta, energyDelta);
+
+        if (session == null || session.id != sample.sessionId) {
+            if (session != null) {
+                database.sessionDao().upsertSummary(session);
+            }
+            session = database.sessionDao().getSummary(sample.sessionId);
+            if (session == null) {
+                session = new SessionSummaryEntity(sample.sessionId, sample.charging);
+            }
+        }
+        session.add(sample, chargeDelta, energyDelta);
+    }
+
+    /**
+     * Simpan bucket dan sesi yang sedang berjalan
+     */
+    public void persist() {
+        RollupDao rollupDao = database.rollupDao();
+        if (minute != null) rollupDao.upsert(minute);
+        if (hour != null) rollupDao.upsert(hour);
+        if (session != null) database.sessionDao().upsertSummary(session);
+    }
+
+    /**
+     * Lupakan state di memori, misalnya setelah history dihapus
+     */
+    public void reset() {
+        minute = null;
+        hour = null;
+        session = null;
+        integrator.reset();
+    }
+
+    /**
+     * Hapus kontribusi rentang [start, end] (misal sesi yang dihapus) dari semua tier.
+     * State di memori dilupakan, jadi panggil setelah persist().
+     *
+     * @param remaining sample tersisa di sekitar rentang (urut waktu), dipakai untuk membangun
+     *                  ulang bucket di tepi rentang; null jika sample sudah tidak tersedia,
+     *                  maka bucket tepi dibiarkan agar data sesi tetangga tidak ikut hilang
+     */
+    public void removeRange(long start, long end, List<SampleEntity> remaining) {
+        reset();
+        removeRange(MINUTE, start, end, remaining);
+        removeRange(HOUR, start, end, remaining);
+    }
+
+    private void removeRange(long resolution, long start, long end, List<SampleEntity> remaining) {
+        RollupDao rollupDao = database.rollupDao();
+        long first = start - Math.floorMod(start, resolution);
+        long last = end - Math.floorMod(end, resolution);
+        if (remaining == null) {
+            // Hanya bucket yang seluruhnya berada di dalam rentang
+            long from = first == start ? first : first + resolution;
+            long to = last + resolution - 1 <= end ? last + resolution : last;
+            if (from < to) rollupDao.deleteRange(resolution, from, to);
+            return;
+        }
+
+        rollupDao.deleteRange(resolution, first, last + resolution);
+        Integrator rebuild = new Integrator();
+        RollupEntity bucket = null;
+        for (SampleEntity sample : remaining) {
+            rebuild.add(sample);
+            if (sample.timestamp < first || sample.timestamp >= last + resolution) continue;
+            long bucketStart = sample.timestamp - Math.floorMod(sample.timestamp, resolution);
+            if (bucket == null || bucket.bucketStart != bucketStart) {
+                if (bucket != null) rollupDao.upsert(bucket);
+                bucket = new RollupEntity(resolution, bucketStart);
+            }
+            bucket.add(sample, rebuild.chargeDelta, rebuild.energyDelta);
+        }
+        if (bucket != null) rollupDao.upsert(bucket);
+    }
+
+    /**
+     * Bucket untuk timestamp; bucket lama di-upsert, bucket yang sudah ada di database
+     * (misal setelah proses di-restart) dilanjutkan
+     */
+    private RollupEntity advance(RollupEntity bucket, long resolution, long timestamp) {
+        long bucketStart = timestamp - Math.floorMod(timestamp, resolution);
+        if (bucket != null && bucket.bucketStart == bucketStart) {
+            return bucket;
+        }
+        RollupDao rollupDao = database.rollupDao();
+        if (bucket != null) {
+            rollupDao.upsert(bucket);
+        }
+        RollupEntity existing = rollupDao.get(resolution, bucketStart);
+        return existing != null ? existing : new RollupEntity(resolution, bucketStart);
+    }
+
+    /**
+     * Integrasi trapezoid muatan (mAh) dan energi (mWh) antar sample berurutan
+     */
+    private static final class Integrator {
+        // Sample sebelumnya
+        private long lastTimestamp = 0;
+        private float lastSignedCurrent;
+        private float lastPower;
+
+        // Hasil add() terakhir
+        float chargeDelta;
+        float energyDelta;
+
+        void add(SampleEntity sample) {
+            float signedCurrent = sample.charging ? sample.current : -sample.current;
+            float power = signedCurrent * sample.voltage; // mW
+
+            chargeDelta = 0f;
+            energyDelta = 0f;
+            long dt = sample.timestamp - lastTimestamp;
+            if (lastTimestamp != 0 && dt > 0 && dt <= MAX_INTEGRATION_GAP_MILLIS) {
+                double hours = dt / MILLIS_PER_HOUR;
+                chargeDelta = (float) ((lastSignedCurrent + signedCurrent) / 2.0 * hours);
+                energyDelta = (float) ((lastPower + power) / 2.0 * hours);
+            }
+            lastTimestamp = sample.timestamp;
+            lastSignedCurrent = signedCurrent;
+            lastPower = power;
+        }
+
+        void reset() {
+            lastTimestamp = 0;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.voltcheck.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import java.util.List;
+
+@Dao
+public interface SampleBlockDao {
+
+    @Insert
+    void insert(SampleBlockEntity block);
+
+    /**
+     * Blok yang beririsan dengan rentang [from, to)
+     */
+    @Query("SELECT * FROM sample_blocks WHERE start_time < :to AND end_time >= :from ORDER BY start_time")
+    List<SampleBlockEntity> getRange(long from, long to);
+
+    /**
+     * Halaman berikutnya setelah id tertentu; blok besar, jadi halaman kecil
+     */
+    @Query("SELECT * FROM sample_blocks WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<SampleBlockEntity> getPageAfter(long afterId, int limit);
+
+    @Query("SELECT COUNT(*) FROM sample_blocks")
+    int count();
+
+    @Query("SELECT COALESCE(SUM(count), 0) FROM sample_blocks")
+    int sampleCount();
+
+    @Update
+    void update(SampleBlockEntity block);
+
+    @Query("DELETE FROM sample_blocks WHERE id = :id")
+    void delete(long id);
+
+    @Query("DELETE FROM sample_blocks WHERE end_time < :before")
+    int deleteOlderThan(long before);
+
+    @Query("DELETE FROM sample_blocks")
+    void deleteAll();
+}
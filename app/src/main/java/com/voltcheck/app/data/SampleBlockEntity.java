@@ -0,0 +1,33 @@
+package com.voltcheck.app.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Blok sample mentah terkompresi (SampleBlockCodec) untuk data yang lebih tua dari 24 jam
+ */
+@Entity(tableName = "sample_blocks", indices = {@Index("start_time")})
+public class SampleBlockEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    @ColumnInfo(name = "start_time")
+    public long startTime;          // epoch millis, sample paling awal
+
+    @ColumnInfo(name = "end_time")
+    public long endTime;            // epoch millis, sample paling akhir
+
+    public int count;
+
+    public byte[] data;
+
+    public SampleBlockEntity(long startTime, long endTime, int count, byte[] data) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.count = count;
+        this.data = data;
+    }
+}
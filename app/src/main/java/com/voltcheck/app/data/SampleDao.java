@@ -0,0 +1,74 @@
+package com.voltcheck.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface SampleDao {
+
+    @Insert
+    void insert(SampleEntity sample);
+
+    @Insert
+    void insertAll(List<SampleEntity> samples);
+
+    /**
+     * Sample dalam rentang [from, to), memakai index timestamp
+     */
+    @Query("SELECT * FROM samples WHERE timestamp >= :from AND timestamp < :to ORDER BY timestamp")
+    List<SampleEntity> getRange(long from, long to);
+
+    /**
+     * N sample terbaru, urut dari yang paling baru
+     */
+    @Query("SELECT * FROM samples ORDER BY timestamp DESC LIMIT :limit")
+    List<SampleEntity> getLatest(int limit);
+
+    /**
+     * Halaman berikutnya setelah id tertentu, untuk membaca seluruh tabel bertahap
+     */
+    @Query("SELECT * FROM samples WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<SampleEntity> getPageAfter(long afterId, int limit);
+
+    /**
+     * Sample tertua (urut insert) yang lebih lama dari batas, untuk diarsip ke blok
+     */
+    @Query("SELECT * FROM samples WHERE timestamp < :before ORDER BY id LIMIT :limit")
+    List<SampleEntity> getOldest(long before, int limit);
+
+    @Query("SELECT * FROM samples WHERE session_id = :sessionId ORDER BY timestamp")
+    List<SampleEntity> getSession(long sessionId);
+
+    /**
+     * Agregat per window (misal per menit) dalam rentang [from, to)
+     */
+    @Query("SELECT (timestamp / :windowMillis) * :windowMillis AS windowStart, "
+            + "COUNT(*) AS sampleCount, "
+            + "AVG(current) AS avgCurrent, MIN(current) AS minCurrent, MAX(current) AS maxCurrent, "
+            + "AVG(voltage) AS avgVoltage, MIN(voltage) AS minVoltage, MAX(voltage) AS maxVoltage, "
+            + "MAX(temperature) AS maxTemperature, MIN(level) AS minLevel, MAX(level) AS maxLevel "
+            + "FROM samples WHERE timestamp >= :from AND timestamp < :to "
+            + "GROUP BY windowStart ORDER BY windowStart")
+    List<WindowAggregate> getWindowAggregates(long from, long to, long windowMillis);
+
+    @Query("SELECT COUNT(*) FROM samples")
+    int count();
+
+    @Query("DELETE FROM samples WHERE timestamp < :before")
+    int deleteOlderThan(long before);
+
+    /**
+     * Hapus batch hasil getOldest(before, ...) yang id terakhirnya maxId
+     */
+    @Query("DELETE FROM samples WHERE timestamp < :before AND id <= :maxId")
+    int deleteOldest(long before, long maxId);
+
+    @Query("DELETE FROM samples WHERE session_id = :sessionId")
+    void deleteSession(long sessionId);
+
+    @Query("DELETE FROM samples")
+    void deleteAll();
+}
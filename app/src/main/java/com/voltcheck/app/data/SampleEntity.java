@@ -0,0 +1,41 @@
+package com.voltcheck.app.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Satu baris time-series baterai. session_id = waktu mulai sesi (epoch millis)
+ */
+@Entity(tableName = "samples",
+        indices = {@Index("timestamp"), @Index("session_id")})
+public class SampleEntity {
+
+    @PrimaryKey(autoGenerate = true)
+    public long id;
+
+    public long timestamp;          // epoch millis
+
+    @ColumnInfo(name = "session_id")
+    public long sessionId;
+
+    public float current;           // mA, nilai absolut
+    public float voltage;           // V
+    public float temperature;       // °C
+    public int level;               // %
+    public int status;              // BatteryManager.BATTERY_STATUS_*
+    public boolean charging;
+
+    public SampleEntity(long timestamp, long sessionId, float current, float voltage,
+                        float temperature, int level, int status, boolean charging) {
+        this.timestamp = timestamp;
+        this.sessionId = sessionId;
+        this.current = current;
+        this.voltage = voltage;
+        this.temperature = temperature;
+        this.level = level;
+        this.status = status;
+        this.charging = charging;
+    }
+}
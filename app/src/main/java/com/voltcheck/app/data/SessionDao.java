@@ -0,0 +1,56 @@
+package com.voltcheck.app.data;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface SessionDao {
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insert(SessionEntity session);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(SessionEntity session);
+
+    @Query("SELECT * FROM sessions WHERE id = :id")
+    SessionEntity get(long id);
+
+    @Query("DELETE FROM sessions WHERE id = :id")
+    void delete(long id);
+
+    @Query("DELETE FROM sessions")
+    void deleteAll();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertSummary(SessionSummaryEntity summary);
+
+    @Query("SELECT * FROM session_summaries WHERE id = :id")
+    SessionSummaryEntity getSummary(long id);
+
+    /**
+     * Satu halaman ringkasan sesi charging, terbaru di atas. Cursor berupa id sesi
+     * (= waktu mulai) terakhir dari halaman sebelumnya; pakai Long.MAX_VALUE untuk halaman pertama.
+     * id adalah primary key (rowid), jadi tiap halaman hanya membaca limit baris.
+     */
+    @Query("SELECT s.id AS sessionId, n.name AS name, "
+            + "s.start_time AS startTime, s.end_time AS endTime, s.sample_count AS sampleCount, "
+            + "s.current_mean AS avgCurrent, s.current_max AS maxCurrent, "
+            + "s.current_mean_square AS meanSquareCurrent, "
+            + "s.voltage_min AS minVoltage, s.voltage_max AS maxVoltage, "
+            + "s.level_min AS minLevel, s.level_max AS maxLevel, "
+            + "s.level_start AS startLevel, s.level_end AS endLevel, s.temperature_max AS maxTemperature, "
+            + "s.charge_mah AS chargeMah, s.energy_mwh AS energyMwh "
+            + "FROM session_summaries s LEFT JOIN sessions n ON n.id = s.id "
+            + "WHERE s.charging = 1 AND s.id < :beforeId ORDER BY s.id DESC LIMIT :limit")
+    List<SessionStats> getChargingSessionsBefore(long beforeId, int limit);
+
+    @Query("DELETE FROM session_summaries WHERE id = :id")
+    void deleteSummary(long id);
+
+    @Query("DELETE FROM session_summaries")
+    void deleteAllSummaries();
+}
@@ -0,0 +1,21 @@
+package com.voltcheck.app.data;
+
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Metadata sesi (nama yang bisa diubah user). id sama dengan session_id di samples
+ */
+@Entity(tableName = "sessions")
+public class SessionEntity {
+
+    @PrimaryKey
+    public long id;
+
+    public String name;
+
+    public SessionEntity(long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+}
@@ -0,0 +1,44 @@
+package com.voltcheck.app.data;
+
+import com.voltcheck.app.utils.CalculationUtil;
+
+/**
+ * Ringkasan per sesi charging dari SessionDao.getChargingSessionsBefore()
+ */
+public class SessionStats {
+
+    public long sessionId;
+    public String name;
+    public long startTime;
+    public long endTime;
+    public int sampleCount;
+    public float avgCurrent;
+    public float maxCurrent;
+    public double meanSquareCurrent;    // AVG(current²), untuk standard deviation
+    public float minVoltage;
+    public float maxVoltage;
+    public int minLevel;
+    public int maxLevel;
+    public int startLevel;
+    public int endLevel;
+    public float maxTemperature;
+    public float chargeMah;
+    public float energyMwh;
+
+    public float getStandardDeviation() {
+        double variance = meanSquareCurrent - (double) avgCurrent * avgCurrent;
+        return variance > 0 ? (float) Math.sqrt(variance) : 0f;
+    }
+
+    public float getStability() {
+        return CalculationUtil.calculateStability(avgCurrent, getStandardDeviation());
+    }
+
+    public float getVoltageDrop() {
+        return maxVoltage - minVoltage;
+    }
+
+    public long getDurationMillis() {
+        return endTime - startTime;
+    }
+}
@@ -0,0 +1,88 @@
+package com.voltcheck.app.data;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Agregat per sesi, diperbarui inkremental oleh RollupWriter.
+ * Tetap ada setelah sample mentah sesi tersebut di-prune.
+ */
+@Entity(tableName = "session_summaries")
+public class SessionSummaryEntity {
+
+    @PrimaryKey
+    public long id;                 // Sama dengan samples.session_id
+
+    @ColumnInfo(name = "start_time")
+    public long startTime;
+    @ColumnInfo(name = "end_time")
+    public long endTime;
+
+    public boolean charging;
+
+    @ColumnInfo(name = "sample_count")
+    public int sampleCount;
+
+    @ColumnInfo(name = "current_mean")
+    public float currentMean;
+    @ColumnInfo(name = "current_max")
+    public float currentMax;
+    @ColumnInfo(name = "current_mean_square")
+    public double currentMeanSquare;    // Untuk standard deviation
+
+    @ColumnInfo(name = "voltage_min")
+    public float voltageMin;
+    @ColumnInfo(name = "voltage_max")
+    public float voltageMax;
+
+    @ColumnInfo(name = "level_min")
+    public int levelMin;
+    @ColumnInfo(name = "level_max")
+    public int levelMax;
+    @ColumnInfo(name = "level_start", defaultValue = "0")
+    public int levelStart;          // Level sample paling awal
+    @ColumnInfo(name = "level_end", defaultValue = "0")
+    public int levelEnd;            // Level sample paling akhir
+
+    @ColumnInfo(name = "temperature_max", defaultValue = "0")
+    public float temperatureMax;
+
+    @ColumnInfo(name = "charge_mah")
+    public float chargeMah;
+    @ColumnInfo(name = "energy_mwh")
+    public float energyMwh;
+
+    public SessionSummaryEntity(long id, boolean charging) {
+        this.id = id;
+        this.charging = charging;
+        this.startTime = id;
+        this.endTime = id;
+    }
+
+    public void add(SampleEntity sample, float chargeDelta, float energyDelta) {
+        if (sampleCount == 0) {
+            currentMax = sample.current;
+            voltageMin = voltageMax = sample.voltage;
+            levelMin = levelMax = sample.level;
+            levelStart = levelEnd = sample.level;
+            temperatureMax = sample.temperature;
+        } else {
+            currentMax = Math.max(currentMax, sample.current);
+            voltageMin = Math.min(voltageMin, sample.voltage);
+            voltageMax = Math.max(voltageMax, sample.voltage);
+            levelMin = Math.min(levelMin, sample.level);
+            levelMax = Math.max(levelMax, sample.level);
+            temperatureMax = Math.max(temperatureMax, sample.temperature);
+            if (sample.timestamp < startTime) levelStart = sample.level;
+            if (sample.timestamp >= endTime) levelEnd = sample.level;
+        }
+        sampleCount++;
+        currentMean += (sample.current - currentMean) / sampleCount;
+        currentMeanSquare += ((double) sample.current * sample.current - currentMeanSquare) / sampleCount;
+        startTime = Math.min(startTime, sample.timestamp);
+        endTime = Math.max(endTime, sample.timestamp);
+        chargeMah += chargeDelta;
+        energyMwh += energyDelta;
+    }
+}
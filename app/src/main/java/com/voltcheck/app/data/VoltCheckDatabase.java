@@ -0,0 +1,126 @@
+package com.voltcheck.app.data;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+/**
+ * Database Room untuk history sample baterai.
+ * Tier penyimpanan: samples mentah (24 jam), sample_blocks terkompresi (90 hari),
+ * rollups 1 menit (30 hari), rollups 1 jam dan session_summaries (selamanya).
+ */
+@Database(entities = {SampleEntity.class, SessionEntity.class, RollupEntity.class, SessionSummaryEntity.class,
+        SampleBlockEntity.class}, version = 4, exportSchema = false)
+public abstract class VoltCheckDatabase extends RoomDatabase {
+
+    private static final String DATABASE_NAME = "voltcheck.db";
+
+    private static volatile VoltCheckDatabase instance;
+
+    public abstract SampleDao sampleDao();
+
+    public abstract SessionDao sessionDao();
+
+    public abstract RollupDao rollupDao();
+
+    public abstract SampleBlockDao sampleBlockDao();
+
+    /**
+     * v2: tabel rollups dan session_summaries, diisi dari samples yang sudah ada.
+     * Muatan/energi hasil backfill adalah perkiraan (rata-rata x durasi).
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `rollups` ("
+                    + "`resolution` INTEGER NOT NULL, `bucket_start` INTEGER NOT NULL, `count` INTEGER NOT NULL, "
+                    + "`current_min` REAL NOT NULL, `current_max` REAL NOT NULL, `current_mean` REAL NOT NULL, "
+                    + "`voltage_min` REAL NOT NULL, `voltage_max` REAL NOT NULL, `voltage_mean` REAL NOT NULL, "
+                    + "`temperature_min` REAL NOT NULL, `temperature_max` REAL NOT NULL, `temperature_mean` REAL NOT NULL, "
+                    + "`level_min` INTEGER NOT NULL, `level_max` INTEGER NOT NULL, "
+                    + "`charge_mah` REAL NOT NULL, `energy_mwh` REAL NOT NULL, "
+                    + "PRIMARY KEY(`resolution`, `bucket_start`))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `session_summaries` ("
+                    + "`id` INTEGER NOT NULL, `start_time` INTEGER NOT NULL, `end_time` INTEGER NOT NULL, "
+                    + "`charging` INTEGER NOT NULL, `sample_count` INTEGER NOT NULL, "
+                    + "`current_mean` REAL NOT NULL, `current_max` REAL NOT NULL, `current_mean_square` REAL NOT NULL, "
+                    + "`voltage_min` REAL NOT NULL, `voltage_max` REAL NOT NULL, "
+                    + "`level_min` INTEGER NOT NULL, `level_max` INTEGER NOT NULL, "
+                    + "`charge_mah` REAL NOT NULL, `energy_mwh` REAL NOT NULL, "
+                    + "PRIMARY KEY(`id`))");
+
+            for (long resolution : new long[] {RollupWriter.MINUTE, RollupWriter.HOUR}) {
+                db.execSQL("INSERT OR REPLACE INTO rollups SELECT " + resolution + ", "
+                        + "(timestamp / " + resolution + ") * " + resolution + " AS bucket, COUNT(*), "
+                        + "MIN(current), MAX(current), AVG(current), "
+                        + "MIN(voltage), MAX(voltage), AVG(voltage), "
+                        + "MIN(temperature), MAX(temperature), AVG(temperature), "
+                        + "MIN(level), MAX(level), "
+                        + "AVG(CASE WHEN charging THEN current ELSE -current END) * (MAX(timestamp) - MIN(timestamp)) / 3600000.0, "
+                        + "AVG(CASE WHEN charging THEN current ELSE -current END * voltage) * (MAX(timestamp) - MIN(timestamp)) / 3600000.0 "
+                        + "FROM samples GROUP BY bucket");
+            }
+            db.execSQL("INSERT OR REPLACE INTO session_summaries SELECT session_id, "
+                    + "MIN(timestamp), MAX(timestamp), MAX(charging), COUNT(*), "
+                    + "AVG(current), MAX(current), AVG(current * current), "
+                    + "MIN(voltage), MAX(voltage), MIN(level), MAX(level), "
+                    + "AVG(CASE WHEN charging THEN current ELSE -current END) * (MAX(timestamp) - MIN(timestamp)) / 3600000.0, "
+                    + "AVG(CASE WHEN charging THEN current ELSE -current END * voltage) * (MAX(timestamp) - MIN(timestamp)) / 3600000.0 "
+                    + "FROM samples GROUP BY session_id");
+        }
+    };
+
+    /**
+     * v3: tabel sample_blocks untuk arsip sample mentah terkompresi
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sample_blocks` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `start_time` INTEGER NOT NULL, "
+                    + "`end_time` INTEGER NOT NULL, `count` INTEGER NOT NULL, `data` BLOB)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_sample_blocks_start_time` ON `sample_blocks` (`start_time`)");
+        }
+    };
+
+    /**
+     * v4: level awal/akhir dan suhu maksimum per sesi. Sesi yang sample mentahnya sudah diarsip
+     * memakai level min/max dan suhu maksimum dari rollup 1 jam sebagai perkiraan.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE session_summaries ADD COLUMN `level_start` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE session_summaries ADD COLUMN `level_end` INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE session_summaries ADD COLUMN `temperature_max` REAL NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE session_summaries SET "
+                    + "level_start = COALESCE((SELECT level FROM samples WHERE session_id = session_summaries.id "
+                    + "ORDER BY timestamp LIMIT 1), CASE WHEN charging THEN level_min ELSE level_max END), "
+                    + "level_end = COALESCE((SELECT level FROM samples WHERE session_id = session_summaries.id "
+                    + "ORDER BY timestamp DESC LIMIT 1), CASE WHEN charging THEN level_max ELSE level_min END), "
+                    + "temperature_max = COALESCE((SELECT MAX(temperature) FROM samples "
+                    + "WHERE session_id = session_summaries.id), (SELECT MAX(temperature_max) FROM rollups "
+                    + "WHERE resolution = " + RollupWriter.HOUR + " AND bucket_start > session_summaries.start_time - "
+                    + RollupWriter.HOUR + " AND bucket_start <= session_summaries.end_time), 0)");
+        }
+    };
+
+    public static VoltCheckDatabase getInstance(Context context) {
+        if (instance == null) {
+            synchronized (VoltCheckDatabase.class) {
+                if (instance == null) {
+                    instance = Room.databaseBuilder(context.getApplicationContext(),
+                            VoltCheckDatabase.class, DATABASE_NAME)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+                            .build();
+                }
+            }
+        }
+        return instance;
+    }
+}
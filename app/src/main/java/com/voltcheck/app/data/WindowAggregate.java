@@ -0,0 +1,19 @@
+package com.voltcheck.app.data;
+
+/**
+ * Agregat sample per window waktu dari SampleDao.getWindowAggregates()
+ */
+public class WindowAggregate {
+
+    public long windowStart;        // epoch millis
+    public int sampleCount;
+    public float avgCurrent;
+    public float minCurrent;
+    public float maxCurrent;
+    public float avgVoltage;
+    public float minVoltage;
+    public float maxVoltage;
+    public float maxTemperature;
+    public int minLevel;
+    public int maxLevel;
+}
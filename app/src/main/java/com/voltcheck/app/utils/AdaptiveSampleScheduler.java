@@ -0,0 +1,102 @@
+package com.voltcheck.app.utils;
+
+/**
+ * Menentukan interval sampling berikutnya untuk monitoring background.
+ * Cepat saat arus berubah atau kondisi alert sudah dekat (suhu mendekati threshold,
+ * level mendekati alarm), melambat bertahap saat arus stabil (fase CV), saat discharging,
+ * atau saat layar mati.
+ */
+public class AdaptiveSampleScheduler {
+
+    private static final long MIN_INTERVAL = 1000;                   // Interval tercepat
+    private static final long MAX_INTERVAL_CHARGING = 10000;         // Charging stabil
+    private static final long MAX_INTERVAL_DISCHARGING = 30000;      // Discharging
+    private static final int SCREEN_OFF_FACTOR = 2;                  // Layar mati: batas x2
+    private static final float BACKOFF_FACTOR = 1.5f;                // Perlambatan per sample stabil
+    private static final float CHANGE_THRESHOLD = 0.10f;             // 10% dari rata-rata = berubah
+    private static final float EMA_ALPHA = 0.3f;
+    private static final float TEMP_MARGIN = 2f;                     // °C sebelum threshold suhu
+    private static final int LEVEL_MARGIN = 2;                       // % sebelum alarm level
+
+    private long baseInterval = MIN_INTERVAL;
+    private long interval = MIN_INTERVAL;
+    private float averageCurrent = -1f;
+    private boolean screenOn = true;
+    private boolean charging = false;
+
+    private float highTempThreshold = Float.MAX_VALUE;
+    private int levelThreshold = Integer.MAX_VALUE;
+
+    /**
+     * Interval dari Settings, dipakai sebagai interval tercepat
+     */
+    public void setBaseInterval(long baseInterval) {
+        this.baseInterval = Math.max(MIN_INTERVAL, baseInterval);
+        if (interval < this.baseInterval) {
+            interval = this.baseInterval;
+        }
+    }
+
+    public void setScreenOn(boolean screenOn) {
+        this.screenOn = screenOn;
+        if (screenOn) {
+            interval = Math.min(interval, getMaxInterval(charging));
+        }
+    }
+
+    /**
+     * @param highTempThreshold suhu alert (°C), Float.MAX_VALUE jika alert suhu nonaktif
+     * @param levelThreshold level alert berikutnya yang belum tercapai (%), Integer.MAX_VALUE jika tidak ada
+     */
+    public void setAlertThresholds(float highTempThreshold, int levelThreshold) {
+        this.highTempThreshold = highTempThreshold;
+        this.levelThreshold = levelThreshold;
+    }
+
+    /**
+     * Kembali ke interval tercepat, misalnya saat status charging berubah
+     */
+    public void reset() {
+        interval = baseInterval;
+        averageCurrent = -1f;
+    }
+
+    /**
+     * Proses satu sample dan kembalikan jeda sampai sample berikutnya (ms)
+     */
+    public long onSample(float current, float temperature, int level, boolean charging) {
+        this.charging = charging;
+        boolean changing;
+        if (averageCurrent < 0) {
+            averageCurrent = current;
+            changing = true;
+        } else {
+            float deviation = Math.abs(current - averageCurrent) / Math.max(averageCurrent, 100f);
+            changing = deviation > CHANGE_THRESHOLD;
+            averageCurrent += EMA_ALPHA * (current - averageCurrent);
+        }
+
+        boolean nearAlert = charging && (temperature >= highTempThreshold - TEMP_MARGIN
+                || (level >= levelThreshold - LEVEL_MARGIN && level <= levelThreshold));
+
+        if (changing || nearAlert) {
+            interval = baseInterval;
+        } else {
+            long next = (long) (interval * BACKOFF_FACTOR);
+            interval = Math.min(next, getMaxInterval(charging));
+        }
+        return interval;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    private long getMaxInterval(boolean charging) {
+        long max = charging ? MAX_INTERVAL_CHARGING : MAX_INTERVAL_DISCHARGING;
+        if (!screenOn) {
+            max *= SCREEN_OFF_FACTOR;
+        }
+        return Math.max(max, baseInterval);
+    }
+}
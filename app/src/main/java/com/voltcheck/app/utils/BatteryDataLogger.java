@@ -2,100 +2,712 @@ package com.voltcheck.app.utils;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.os.BatteryManager;
+import android.util.Log;
 import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
 import com.google.gson.reflect.TypeToken;
+import com.voltcheck.app.data.RollupWriter;
+import com.voltcheck.app.data.SampleBlockDao;
+import com.voltcheck.app.data.SampleBlockEntity;
+import com.voltcheck.app.data.SampleDao;
+import com.voltcheck.app.data.SampleEntity;
+import com.voltcheck.app.data.SessionStats;
+import com.voltcheck.app.data.SessionSummaryEntity;
+import com.voltcheck.app.data.VoltCheckDatabase;
 import java.lang.reflect.Type;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Utility class untuk logging data baterai
+ * Utility class untuk logging data baterai.
+ * Data disimpan di tabel samples (Room) dan diringkas inkremental ke rollup 1 menit/1 jam
+ * serta ringkasan sesi. logData() hanya menaruh sample di buffer memori;
+ * penulisan ke database dilakukan batch di thread logger (write-behind) saat buffer penuh,
+ * tiap FLUSH_INTERVAL_MILLIS, atau saat flush() dipanggil. Method baca tidak boleh dipanggil
+ * dari main thread.
  */
 public class BatteryDataLogger {
     
+    private static final String TAG = "BatteryDataLogger";
+    
+    // Lokasi lama, hanya untuk migrasi
     private static final String PREFS_NAME = "BatteryDataLog";
     private static final String KEY_DATA_LOG = "data_log";
-    private static final int MAX_LOG_ENTRIES = 1000; // Maksimal 1000 entries
-    
-    public static class BatteryData {
-        public String timestamp;
-        public float current;
-        public float voltage;
-        public float temperature;
-        public int level;
-        public String status;
+    
+    private static final String TIMESTAMP_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final long RAW_RETENTION_MILLIS = 24L * 60 * 60 * 1000;           // Sample mentah 24 jam
+    public static final long MINUTE_ROLLUP_RETENTION_MILLIS = 30L * 24 * 60 * 60 * 1000; // Rollup 1 menit 30 hari
+    private static final long BLOCK_RETENTION_MILLIS = 90L * 24 * 60 * 60 * 1000;         // Arsip terkompresi 90 hari
+    private static final int BLOCK_SIZE = 3600;                               // Sample per blok arsip (1 jam pada 1 Hz)
+    private static final int BLOCK_PAGE_SIZE = 4;
+    private static final long PRUNE_INTERVAL_MILLIS = 60 * 60 * 1000;         // Prune tiap 1 jam
+    private static final long SESSION_GAP_MILLIS = 10 * 60 * 1000;           // Jeda > 10 menit = sesi baru
+    private static final int PAGE_SIZE = 1000;
+    
+    private static final int BATCH_SIZE = 60;                                // Flush setiap 60 sample
+    private static final long FLUSH_INTERVAL_MILLIS = 30 * 1000;             // Atau paling lambat 30 detik
+    private static final int MAX_PENDING = 1200;                             // Batas buffer saat disk lambat
+    
+    private static volatile VoltCheckDatabase database;
+    private static volatile ScheduledExecutorService executor;
+    
+    // Penulisan ke database (dan status sesi) dijaga oleh writeLock
+    private static final Object writeLock = new Object();
+    
+    // Buffer write-behind, dijaga oleh pendingLock
+    private static final Object pendingLock = new Object();
+    private static ArrayList<SampleEntity> pending = new ArrayList<>();
+    private static ArrayList<SampleEntity> flushing = new ArrayList<>();
+    private static boolean flushQueued = false;
+    private static int droppedSamples = 0;
+    
+    // Status sesi berjalan dan rollup inkremental (writeLock)
+    private static RollupWriter rollupWriter;
+    private static long sessionId = 0;
+    private static boolean sessionCharging = false;
+    private static long lastTimestamp = 0;
+    private static long lastPrune = 0;
+    
+    // Formatter per thread, dibuat sekali saat pertama dipakai untuk tampilan/ekspor
+    private static final ThreadLocal<SimpleDateFormat> TIMESTAMP_FORMAT = new ThreadLocal<SimpleDateFormat>() {
+        @Override
+        protected SimpleDateFormat initialValue() {
+            return new SimpleDateFormat(TIMESTAMP_PATTERN, Locale.getDefault());
+        }
+    };
+    
+    /**
+     * Satu record log: epoch millis dan field primitif saja, format string dibuat saat dibutuhkan
+     */
+    public static final class BatteryData {
+        public final long timestamp;     // epoch millis
+        public final float current;
+        public final float voltage;
+        public final float temperature;
+        public final int level;
+        public final int status;         // BatteryManager.BATTERY_STATUS_*
         
-        public BatteryData(float current, float voltage, float temperature, int level, String status) {
-            this.timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.getDefault()).format(new Date());
+        public BatteryData(long timestamp, float current, float voltage, float temperature, int level, int status) {
+            this.timestamp = timestamp;
             this.current = current;
             this.voltage = voltage;
             this.temperature = temperature;
             this.level = level;
             this.status = status;
         }
+        
+        BatteryData(SampleEntity sample) {
+            this(sample.timestamp, sample.current, sample.voltage, sample.temperature, sample.level, sample.status);
+        }
+        
+        public String getFormattedTimestamp() {
+            return formatTimestamp(timestamp);
+        }
+        
+        public String getStatusLabel() {
+            return BatteryDataLogger.getStatusLabel(status);
+        }
     }
     
     /**
-     * Log battery data
+     * Format entry lama di SharedPreferences, hanya untuk migrasi
      */
-    public static void logData(Context context, float current, float voltage, float temperature, int level, String status) {
-        try {
-            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            List<BatteryData> dataList = getDataLog(context);
-            
-            // Add new data
-            dataList.add(new BatteryData(current, voltage, temperature, level, status));
-            
-            // Keep only last MAX_LOG_ENTRIES
-            if (dataList.size() > MAX_LOG_ENTRIES) {
-                dataList = dataList.subList(dataList.size() - MAX_LOG_ENTRIES, dataList.size());
+    private static final class LegacyBatteryData {
+        @SerializedName("timestamp") String timestamp;
+        @SerializedName("current") float current;
+        @SerializedName("voltage") float voltage;
+        @SerializedName("temperature") float temperature;
+        @SerializedName("level") int level;
+        @SerializedName("status") String status;
+    }
+    
+    /**
+     * Log battery data (non-blocking, aman dipanggil dari thread mana pun)
+     *
+     * @param status BatteryManager.BATTERY_STATUS_*
+     */
+    public static void logData(Context context, long timestamp, float current, float voltage, float temperature,
+                               int level, int status) {
+        boolean charging = isChargingStatus(status);
+        SampleEntity sample = new SampleEntity(timestamp, 0, current, voltage, temperature, level, status, charging);
+        
+        boolean flushNow;
+        synchronized (pendingLock) {
+            if (pending.size() >= MAX_PENDING) {
+                decimatePending();
+            }
+            pending.add(sample);
+            flushNow = pending.size() >= BATCH_SIZE && !flushQueued;
+            if (flushNow) flushQueued = true;
+        }
+        
+        ScheduledExecutorService logExecutor = getExecutor(context);
+        if (flushNow) {
+            logExecutor.execute(BatteryDataLogger::drain);
+        }
+    }
+    
+    public static void logData(Context context, float current, float voltage, float temperature, int level, int status) {
+        logData(context, System.currentTimeMillis(), current, voltage, temperature, level, status);
+    }
+    
+    /**
+     * Minta buffer ditulis sekarang (asinkron), misalnya saat onPause atau charger dicabut
+     */
+    public static void flush(Context context) {
+        synchronized (pendingLock) {
+            if (pending.isEmpty() || flushQueued) return;
+            flushQueued = true;
+        }
+        getExecutor(context).execute(BatteryDataLogger::drain);
+    }
+    
+    /**
+     * Tulis semua sample di buffer dalam satu transaksi. Dipanggil di thread logger,
+     * atau sinkron oleh method baca agar hasil query sudah termasuk data terbaru.
+     */
+    private static void drain() {
+        VoltCheckDatabase db = database;
+        if (db == null) {
+            // Database belum terbuka; flush berikutnya harus tetap bisa dijadwalkan
+            synchronized (pendingLock) {
+                flushQueued = false;
+            }
+            return;
+        }
+        
+        synchronized (writeLock) {
+            ArrayList<SampleEntity> batch;
+            synchronized (pendingLock) {
+                flushQueued = false;
+                if (pending.isEmpty()) return;
+                // Tukar buffer agar logData tidak menunggu selama insert
+                batch = pending;
+                pending = flushing;
+                flushing = batch;
             }
             
-            // Save to SharedPreferences
-            Gson gson = new Gson();
-            String json = gson.toJson(dataList);
-            prefs.edit().putString(KEY_DATA_LOG, json).apply();
-            
+            try {
+                if (rollupWriter == null) {
+                    rollupWriter = new RollupWriter(db);
+                }
+                db.runInTransaction(() -> {
+                    for (int i = 0, n = batch.size(); i < n; i++) {
+                        SampleEntity sample = batch.get(i);
+                        sample.sessionId = assignSession(db, sample.timestamp, sample.charging);
+                        rollupWriter.add(sample);
+                    }
+                    db.sampleDao().insertAll(batch);
+                    rollupWriter.persist();
+                });
+                
+                long now = System.currentTimeMillis();
+                if (now - lastPrune >= PRUNE_INTERVAL_MILLIS) {
+                    lastPrune = now;
+                    prune(db, now);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error writing " + batch.size() + " samples: " + e.getMessage());
+                // Transaksi di-rollback; state di memori sudah memuat batch yang dibuang,
+                // jadi muat ulang bucket, ringkasan dan sesi dari database pada drain berikutnya
+                if (rollupWriter != null) rollupWriter.reset();
+                sessionId = 0;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Backpressure: jika disk tertinggal, buang setiap sample kedua di buffer
+     * (resolusi turun, rentang waktu tetap utuh) daripada memori terus tumbuh
+     */
+    private static void decimatePending() {
+        int size = pending.size();
+        int kept = 0;
+        for (int i = 0; i < size; i += 2) {
+            pending.set(kept++, pending.get(i));
+        }
+        pending.subList(kept, size).clear();
+        droppedSamples += size - kept;
+        Log.w(TAG, "Log writer behind, decimated buffer (" + droppedSamples + " samples dropped)");
+    }
+    
+    private static ScheduledExecutorService getExecutor(Context context) {
+        if (executor != null) {
+            return executor;
+        }
+        synchronized (BatteryDataLogger.class) {
+            if (executor != null) {
+                return executor;
+            }
+            Context appContext = context.getApplicationContext();
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "VoltCheck-Logger");
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+            // Buka database (dan migrasi) di thread logger, bukan di thread pemanggil
+            executor.execute(() -> getDatabase(appContext));
+            executor.scheduleWithFixedDelay(BatteryDataLogger::drain,
+                    FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            return executor;
+        }
+    }
+    
+    /**
+     * Data dalam rentang waktu [from, to)
+     */
+    public static List<BatteryData> getDataLog(Context context, long from, long to) {
+        List<BatteryData> dataList = new ArrayList<>();
+        readDataLog(context, from, to, (timestamp, current, voltage, temperature, level, status) ->
+                dataList.add(new BatteryData(timestamp, current, voltage, temperature, level, status)));
+        return dataList;
+    }
+    
+    /**
+     * Dipanggil untuk setiap sample yang dibaca, urut dari yang paling lama
+     */
+    public interface Visitor {
+        void onRecord(long timestamp, float current, float voltage, float temperature, int level, int status);
+    }
+    
+    /**
+     * Baca sample dengan timestamp di [from, to) secara streaming, urut dari yang paling lama
+     */
+    public static void readDataLog(Context context, long from, long to, Visitor visitor) {
+        try {
+            VoltCheckDatabase db = getDatabase(context);
+            drain();
+            for (SampleBlockEntity block : db.sampleBlockDao().getRange(from, to)) {
+                SampleBlockCodec.Decoder decoder = new SampleBlockCodec.Decoder(block.data);
+                while (decoder.next()) {
+                    if (decoder.timestamp >= from && decoder.timestamp < to) {
+                        visitor.onRecord(decoder.timestamp, decoder.current, decoder.voltage,
+                                decoder.temperature, decoder.level, decoder.status);
+                    }
+                }
+            }
+            for (SampleEntity sample : db.sampleDao().getRange(from, to)) {
+                visitor.onRecord(sample.timestamp, sample.current, sample.voltage,
+                        sample.temperature, sample.level, sample.status);
+            }
         } catch (Exception e) {
-            e.printStackTrace();
+            Log.e(TAG, "Error reading data log: " + e.getMessage());
         }
     }
     
     /**
-     * Get all logged data
+     * N data terbaru, urut dari yang paling lama
      */
-    public static List<BatteryData> getDataLog(Context context) {
+    public static List<BatteryData> getRecentData(Context context, int limit) {
+        List<BatteryData> dataList = new ArrayList<>();
         try {
-            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-            String json = prefs.getString(KEY_DATA_LOG, "[]");
-            
-            Gson gson = new Gson();
-            Type type = new TypeToken<List<BatteryData>>(){}.getType();
-            List<BatteryData> dataList = gson.fromJson(json, type);
-            
-            return dataList != null ? dataList : new ArrayList<>();
-            
+            VoltCheckDatabase db = getDatabase(context);
+            drain();
+            List<SampleEntity> latest = db.sampleDao().getLatest(limit);
+            for (int i = latest.size() - 1; i >= 0; i--) {
+                dataList.add(new BatteryData(latest.get(i)));
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading data log: " + e.getMessage());
+        }
+        return dataList;
+    }
+    
+    /**
+     * Baca seluruh log (arsip terkompresi lalu sample mentah) per halaman
+     * tanpa memuat semuanya ke memori
+     */
+    public static void readDataLog(Context context, Visitor visitor) {
+        try {
+            visitDataLog(context, visitor);
         } catch (Exception e) {
-            e.printStackTrace();
-            return new ArrayList<>();
+            Log.e(TAG, "Error reading data log: " + e.getMessage());
         }
     }
     
+    /**
+     * Sama dengan readDataLog, tetapi exception dari database atau visitor diteruskan ke pemanggil
+     * (misalnya untuk membatalkan ekspor)
+     */
+    static void visitDataLog(Context context, Visitor visitor) {
+        VoltCheckDatabase db = getDatabase(context);
+        drain();
+        
+        long afterBlockId = 0;
+        List<SampleBlockEntity> blocks;
+        do {
+            blocks = db.sampleBlockDao().getPageAfter(afterBlockId, BLOCK_PAGE_SIZE);
+            for (SampleBlockEntity block : blocks) {
+                SampleBlockCodec.Decoder decoder = new SampleBlockCodec.Decoder(block.data);
+                while (decoder.next()) {
+                    visitor.onRecord(decoder.timestamp, decoder.current, decoder.voltage,
+                            decoder.temperature, decoder.level, decoder.status);
+                }
+                afterBlockId = block.id;
+            }
+        } while (blocks.size() == BLOCK_PAGE_SIZE);
+        
+        SampleDao dao = db.sampleDao();
+        long afterId = 0;
+        List<SampleEntity> page;
+        do {
+            page = dao.getPageAfter(afterId, PAGE_SIZE);
+            for (SampleEntity sample : page) {
+                visitor.onRecord(sample.timestamp, sample.current, sample.voltage,
+                        sample.temperature, sample.level, sample.status);
+                afterId = sample.id;
+            }
+        } while (page.size() == PAGE_SIZE);
+    }
+    
     /**
      * Clear all logged data
      */
     public static void clearDataLog(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        prefs.edit().remove(KEY_DATA_LOG).apply();
+        try {
+            VoltCheckDatabase db = getDatabase(context);
+            synchronized (writeLock) {
+                synchronized (pendingLock) {
+                    pending.clear();
+                }
+                db.runInTransaction(() -> {
+                    db.sampleDao().deleteAll();
+                    db.sessionDao().deleteAll();
+                    db.sessionDao().deleteAllSummaries();
+                    db.rollupDao().deleteAll();
+                    db.sampleBlockDao().deleteAll();
+                });
+                if (rollupWriter != null) rollupWriter.reset();
+                sessionId = 0;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error clearing data log: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Callback ringkasan sesi, dipanggil di thread logger
+     */
+    public interface SessionCallback {
+        void onSession(SessionStats session);
+    }
+    
+    /**
+     * Ringkasan sesi charging terbaru (sama dengan baris teratas History) setelah buffer ditulis,
+     * misalnya untuk notifikasi saat charger dicabut. session null jika belum ada sesi.
+     */
+    public static void loadLatestChargingSession(Context context, SessionCallback callback) {
+        getExecutor(context).execute(() -> {
+            SessionStats session = null;
+            try {
+                VoltCheckDatabase db = getDatabase(context);
+                drain();
+                List<SessionStats> latest = db.sessionDao().getChargingSessionsBefore(Long.MAX_VALUE, 1);
+                if (!latest.isEmpty()) session = latest.get(0);
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading latest session: " + e.getMessage());
+            }
+            callback.onSession(session);
+        });
+    }
+    
+    /**
+     * Hapus satu sesi beserta semua sample-nya: sample mentah, sample di blok arsip,
+     * ringkasan sesi, dan kontribusinya ke rollup 1 menit/1 jam.
+     * Blocking; panggil dari background thread.
+     */
+    public static void deleteSession(Context context, long id) {
+        try {
+            VoltCheckDatabase db = getDatabase(context);
+            synchronized (writeLock) {
+                // Sample sesi yang masih di buffer ikut ditulis lalu dihapus
+                drain();
+                SessionSummaryEntity summary = db.sessionDao().getSummary(id);
+                if (rollupWriter == null) {
+                    rollupWriter = new RollupWriter(db);
+                }
+                db.runInTransaction(() -> {
+                    if (summary != null) {
+                        removeFromBlocks(db, id, summary.startTime, summary.endTime);
+                    }
+                    db.sampleDao().deleteSession(id);
+                    db.sessionDao().delete(id);
+                    db.sessionDao().deleteSummary(id);
+                    if (summary != null) {
+                        rollupWriter.removeRange(summary.startTime, summary.endTime,
+                                readRollupNeighbours(db, summary.startTime, summary.endTime));
+                    }
+                });
+                if (id == sessionId) {
+                    // Sample berikutnya membuka sesi baru, bukan menghidupkan lagi sesi yang dihapus
+                    lastTimestamp = 0;
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error deleting session " + id + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Encode ulang blok arsip yang beririsan dengan [start, end] tanpa sample milik sesi id
+     */
+    private static void removeFromBlocks(VoltCheckDatabase db, long id, long start, long end) {
+        SampleBlockDao dao = db.sampleBlockDao();
+        for (SampleBlockEntity block : dao.getRange(start, end + 1)) {
+            SampleBlockCodec.Decoder decoder = new SampleBlockCodec.Decoder(block.data);
+            SampleBlockCodec.Encoder encoder = new SampleBlockCodec.Encoder();
+            long startTime = Long.MAX_VALUE;
+            long endTime = Long.MIN_VALUE;
+            while (decoder.next()) {
+                if (decoder.sessionId == id) continue;
+                encoder.add(decoder.timestamp, decoder.sessionId, decoder.current, decoder.voltage,
+                        decoder.temperature, decoder.level, decoder.status);
+                startTime = Math.min(startTime, decoder.timestamp);
+                endTime = Math.max(endTime, decoder.timestamp);
+            }
+            if (encoder.size() == block.count) continue;
+            if (encoder.size() == 0) {
+                dao.delete(block.id);
+            } else {
+                block.startTime = startTime;
+                block.endTime = endTime;
+                block.count = encoder.size();
+                block.data = encoder.finish();
+                dao.update(block);
+            }
+        }
+    }
+    
+    /**
+     * Sample tersisa di jam-jam tepi rentang [start, end] (plus satu jam sebelumnya untuk
+     * integrasi) agar bucket rollup tepi bisa dibangun ulang.
+     *
+     * @return null jika rentang sudah lewat masa simpan arsip, sample tetangga tidak tersedia lagi
+     */
+    private static List<SampleEntity> readRollupNeighbours(VoltCheckDatabase db, long start, long end) {
+        if (start < System.currentTimeMillis() - BLOCK_RETENTION_MILLIS) {
+            return null;
+        }
+        long from = start - Math.floorMod(start, RollupWriter.HOUR) - RollupWriter.HOUR;
+        long to = end - Math.floorMod(end, RollupWriter.HOUR) + RollupWriter.HOUR;
+        List<SampleEntity> samples = new ArrayList<>();
+        for (SampleBlockEntity block : db.sampleBlockDao().getRange(from, to)) {
+            SampleBlockCodec.Decoder decoder = new SampleBlockCodec.Decoder(block.data);
+            while (decoder.next()) {
+                if (decoder.timestamp >= from && decoder.timestamp < to) {
+                    samples.add(new SampleEntity(decoder.timestamp, decoder.sessionId, decoder.current,
+                            decoder.voltage, decoder.temperature, decoder.level, decoder.status,
+                            isChargingStatus(decoder.status)));
+                }
+            }
+        }
+        samples.addAll(db.sampleDao().getRange(from, to));
+        return samples;
     }
     
     /**
      * Get data count
      */
     public static int getDataCount(Context context) {
-        return getDataLog(context).size();
+        try {
+            VoltCheckDatabase db = getDatabase(context);
+            drain();
+            return db.sampleDao().count() + db.sampleBlockDao().sampleCount();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Format yyyy-MM-dd HH:mm:ss memakai formatter milik thread pemanggil
+     */
+    public static String formatTimestamp(long timestamp) {
+        return TIMESTAMP_FORMAT.get().format(new Date(timestamp));
+    }
+    
+    public static String getStatusLabel(int status) {
+        switch (status) {
+            case BatteryManager.BATTERY_STATUS_CHARGING:
+                return "Charging";
+            case BatteryManager.BATTERY_STATUS_FULL:
+                return "Full";
+            case BatteryManager.BATTERY_STATUS_DISCHARGING:
+            case BatteryManager.BATTERY_STATUS_NOT_CHARGING:
+                return "Not Charging";
+            default:
+                return "Unknown";
+        }
+    }
+    
+    private static boolean isChargingStatus(int status) {
+        return status == BatteryManager.BATTERY_STATUS_CHARGING ||
+               status == BatteryManager.BATTERY_STATUS_FULL;
+    }
+    
+    /**
+     * Session id = timestamp sample pertama sejak status charging berubah
+     * atau sejak jeda logging yang panjang
+     */
+    private static long assignSession(VoltCheckDatabase db, long timestamp, boolean charging) {
+        if (sessionId == 0) {
+            // Lanjutkan sesi terakhir setelah proses di-restart
+            List<SampleEntity> latest = db.sampleDao().getLatest(1);
+            if (!latest.isEmpty()) {
+                SampleEntity last = latest.get(0);
+                sessionId = last.sessionId;
+                sessionCharging = last.charging;
+                lastTimestamp = last.timestamp;
+            }
+        }
+        
+        if (sessionId == 0 || charging != sessionCharging || timestamp - lastTimestamp > SESSION_GAP_MILLIS) {
+            sessionId = timestamp;
+            sessionCharging = charging;
+        }
+        lastTimestamp = timestamp;
+        return sessionId;
+    }
+    
+    /**
+     * Arsipkan sample mentah yang lewat 24 jam ke blok terkompresi lalu buang tier yang
+     * sudah lewat masa simpannya; rollup 1 jam dan ringkasan sesi disimpan selamanya
+     */
+    private static void prune(VoltCheckDatabase db, long now) {
+        int archived = archiveSamples(db, now - RAW_RETENTION_MILLIS);
+        int deletedBlocks = db.sampleBlockDao().deleteOlderThan(now - BLOCK_RETENTION_MILLIS);
+        int deletedRollups = db.rollupDao().deleteOlderThan(RollupWriter.MINUTE, now - MINUTE_ROLLUP_RETENTION_MILLIS);
+        if (archived > 0 || deletedBlocks > 0 || deletedRollups > 0) {
+            Log.d(TAG, "Archived " + archived + " samples, pruned " + deletedBlocks + " blocks, "
+                    + deletedRollups + " minute rollups");
+        }
+    }
+    
+    /**
+     * Encode sample yang lebih lama dari before ke sample_blocks, BLOCK_SIZE per blok
+     *
+     * @return jumlah sample yang diarsip
+     */
+    private static int archiveSamples(VoltCheckDatabase db, long before) {
+        SampleDao dao = db.sampleDao();
+        int archived = 0;
+        List<SampleEntity> batch;
+        do {
+            batch = dao.getOldest(before, BLOCK_SIZE);
+            if (batch.isEmpty()) break;
+            
+            SampleBlockCodec.Encoder encoder = new SampleBlockCodec.Encoder();
+            long startTime = Long.MAX_VALUE;
+            long endTime = Long.MIN_VALUE;
+            for (SampleEntity sample : batch) {
+                encoder.add(sample.timestamp, sample.sessionId, sample.current, sample.voltage,
+                        sample.temperature, sample.level, sample.status);
+                startTime = Math.min(startTime, sample.timestamp);
+                endTime = Math.max(endTime, sample.timestamp);
+            }
+            SampleBlockEntity block = new SampleBlockEntity(startTime, endTime, encoder.size(), encoder.finish());
+            long maxId = batch.get(batch.size() - 1).id;
+            
+            db.runInTransaction(() -> {
+                db.sampleBlockDao().insert(block);
+                dao.deleteOldest(before, maxId);
+            });
+            archived += batch.size();
+        } while (batch.size() == BLOCK_SIZE);
+        return archived;
+    }
+    
+    private static VoltCheckDatabase getDatabase(Context context) {
+        if (database != null) {
+            return database;
+        }
+        synchronized (BatteryDataLogger.class) {
+            if (database == null) {
+                Context appContext = context.getApplicationContext();
+                VoltCheckDatabase db = VoltCheckDatabase.getInstance(appContext);
+                migrateLegacyLogs(appContext, db);
+                database = db;
+            }
+            return database;
+        }
+    }
+    
+    /**
+     * Pindahkan log lama (JSON di SharedPreferences) ke Room, sekali saja
+     */
+    private static void migrateLegacyLogs(Context context, VoltCheckDatabase db) {
+        List<SampleEntity> migrated = new ArrayList<>();
+        
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        String json = prefs.getString(KEY_DATA_LOG, null);
+        if (json != null) {
+            try {
+                Type type = new TypeToken<List<LegacyBatteryData>>(){}.getType();
+                List<LegacyBatteryData> oldData = new Gson().fromJson(json, type);
+                if (oldData != null) {
+                    SimpleDateFormat format = TIMESTAMP_FORMAT.get();
+                    for (LegacyBatteryData data : oldData) {
+                        addMigrated(migrated, parseTimestamp(format, data.timestamp), data.current, data.voltage,
+                                data.temperature, data.level, parseStatus(data.status));
+                    }
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading legacy JSON log: " + e.getMessage());
+            }
+        }
+        
+        if (!migrated.isEmpty()) {
+            db.runInTransaction(() -> {
+                db.sampleDao().insertAll(migrated);
+                RollupWriter writer = new RollupWriter(db);
+                for (SampleEntity sample : migrated) {
+                    writer.add(sample);
+                }
+                writer.persist();
+            });
+            Log.d(TAG, "Migrated " + migrated.size() + " legacy entries");
+        }
+        
+        prefs.edit().remove(KEY_DATA_LOG).apply();
+    }
+    
+    private static void addMigrated(List<SampleEntity> migrated, long timestamp, float current, float voltage,
+                                    float temperature, int level, int status) {
+        boolean charging = isChargingStatus(status);
+        SampleEntity previous = migrated.isEmpty() ? null : migrated.get(migrated.size() - 1);
+        long session = previous != null && previous.charging == charging
+                && timestamp - previous.timestamp <= SESSION_GAP_MILLIS
+                ? previous.sessionId : timestamp;
+        migrated.add(new SampleEntity(timestamp, session, current, voltage, temperature, level, status, charging));
+    }
+    
+    private static long parseTimestamp(SimpleDateFormat format, String timestamp) {
+        if (timestamp != null) {
+            try {
+                return format.parse(timestamp).getTime();
+            } catch (ParseException e) {}
+        }
+        return 0L;
+    }
+    
+    /**
+     * Status lama berupa teks tampilan ("Charging (7.5 W)...")
+     */
+    private static int parseStatus(String status) {
+        if (status == null) {
+            return BatteryManager.BATTERY_STATUS_UNKNOWN;
+        }
+        return status.startsWith("Charging")
+                ? BatteryManager.BATTERY_STATUS_CHARGING
+                : BatteryManager.BATTERY_STATUS_DISCHARGING;
     }
 }
@@ -0,0 +1,103 @@
+package com.voltcheck.app.utils;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.BatteryManager;
+import android.util.Log;
+
+/**
+ * Snapshot kondisi baterai dari satu kali pembacaan sticky intent ACTION_BATTERY_CHANGED.
+ * Semua extra di-decode sekali ke field primitif agar satu tick cukup satu Binder call.
+ */
+public final class BatterySnapshot {
+
+    private static final String TAG = "BatterySnapshot";
+
+    public static final BatterySnapshot EMPTY = new BatterySnapshot(0f, 0f, 0, -1, -1, -1, null);
+
+    public final float voltage;      // V
+    public final float temperature;  // °C
+    public final int level;          // %
+    public final int status;         // BatteryManager.BATTERY_STATUS_*
+    public final int plugged;        // BatteryManager.BATTERY_PLUGGED_*
+    public final int health;         // BatteryManager.BATTERY_HEALTH_*
+    public final String technology;
+
+    private BatterySnapshot(float voltage, float temperature, int level, int status,
+                            int plugged, int health, String technology) {
+        this.voltage = voltage;
+        this.temperature = temperature;
+        this.level = level;
+        this.status = status;
+        this.plugged = plugged;
+        this.health = health;
+        this.technology = technology;
+    }
+
+    /**
+     * Membaca sticky intent baterai sekali dan men-decode semua extra
+     */
+    public static BatterySnapshot read(Context context) {
+        try {
+            Intent batteryStatus = context.registerReceiver(null, new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+            if (batteryStatus != null) {
+                return fromIntent(batteryStatus);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error reading battery status: " + e.getMessage());
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Decode intent ACTION_BATTERY_CHANGED
+     */
+    public static BatterySnapshot fromIntent(Intent batteryStatus) {
+        int voltage = batteryStatus.getIntExtra(BatteryManager.EXTRA_VOLTAGE, 0);
+        int temp = batteryStatus.getIntExtra(BatteryManager.EXTRA_TEMPERATURE, 0);
+        int rawLevel = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+        int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, -1);
+        int level = scale > 0 ? (int) ((rawLevel / (float) scale) * 100) : 0;
+
+        return new BatterySnapshot(
+                voltage / 1000f, // Convert to V
+                temp / 10f,      // Convert to Celsius
+                level,
+                batteryStatus.getIntExtra(BatteryManager.EXTRA_STATUS, -1),
+                batteryStatus.getIntExtra(BatteryManager.EXTRA_PLUGGED, -1),
+                batteryStatus.getIntExtra(BatteryManager.EXTRA_HEALTH, -1),
+                batteryStatus.getStringExtra(BatteryManager.EXTRA_TECHNOLOGY)
+        );
+    }
+
+    public boolean isCharging() {
+        return status == BatteryManager.BATTERY_STATUS_CHARGING ||
+               status == BatteryManager.BATTERY_STATUS_FULL;
+    }
+
+    public String getChargingType() {
+        if (this == EMPTY) return "Unknown";
+        switch (plugged) {
+            case BatteryManager.BATTERY_PLUGGED_AC: return "AC Charger";
+            case BatteryManager.BATTERY_PLUGGED_USB: return "USB";
+            case BatteryManager.BATTERY_PLUGGED_WIRELESS: return "Wireless";
+            default: return "Battery";
+        }
+    }
+
+    public String getHealth() {
+        switch (health) {
+            case BatteryManager.BATTERY_HEALTH_GOOD: return "Good";
+            case BatteryManager.BATTERY_HEALTH_OVERHEAT: return "Overheat";
+            case BatteryManager.BATTERY_HEALTH_DEAD: return "Dead";
+            case BatteryManager.BATTERY_HEALTH_OVER_VOLTAGE: return "Over Voltage";
+            case BatteryManager.BATTERY_HEALTH_COLD: return "Cold";
+            default: return "Unknown";
+        }
+    }
+
+    public String getTechnology() {
+        return technology != null ? technology : "Unknown";
+    }
+}
@@ -0,0 +1,90 @@
+package com.voltcheck.app.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.util.Log;
+
+/**
+ * Menyimpan snapshot baterai terbaru yang di-push oleh broadcast ACTION_BATTERY_CHANGED.
+ * Sinyal lambat (tegangan, suhu, level, status, jenis charger) tidak perlu di-poll lagi;
+ * loop polling cukup membaca CURRENT_NOW yang tidak dibawa oleh broadcast.
+ */
+public class BatteryStateTracker {
+
+    private static final String TAG = "BatteryStateTracker";
+
+    public interface Listener {
+        void onBatteryChanged(BatterySnapshot snapshot, boolean chargingChanged);
+    }
+
+    private final Context context;
+    private final Listener listener;
+    private final Handler handler;
+    private volatile BatterySnapshot latest = BatterySnapshot.EMPTY;
+    private boolean registered = false;
+
+    private final BroadcastReceiver receiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Intent.ACTION_BATTERY_CHANGED.equals(intent.getAction())) {
+                update(BatterySnapshot.fromIntent(intent));
+            }
+        }
+    };
+
+    public BatteryStateTracker(Context context, Listener listener) {
+        this(context, listener, null);
+    }
+
+    /**
+     * @param handler thread tempat broadcast diterima, null untuk main thread
+     */
+    public BatteryStateTracker(Context context, Listener listener, Handler handler) {
+        this.context = context.getApplicationContext();
+        this.listener = listener;
+        this.handler = handler;
+    }
+
+    /**
+     * Register receiver. Sticky intent langsung dikembalikan sehingga snapshot awal tersedia
+     */
+    public void start() {
+        if (registered) return;
+        try {
+            Intent sticky = context.registerReceiver(receiver, new IntentFilter(Intent.ACTION_BATTERY_CHANGED), null, handler);
+            registered = true;
+            if (sticky != null) {
+                latest = BatterySnapshot.fromIntent(sticky);
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Error registering battery receiver: " + e.getMessage());
+            latest = BatterySnapshot.read(context);
+        }
+    }
+
+    public void stop() {
+        if (!registered) return;
+        try {
+            context.unregisterReceiver(receiver);
+        } catch (Exception e) {}
+        registered = false;
+    }
+
+    /**
+     * Snapshot terakhir tanpa Binder call
+     */
+    public BatterySnapshot getLatest() {
+        return latest;
+    }
+
+    private void update(BatterySnapshot snapshot) {
+        BatterySnapshot previous = latest;
+        latest = snapshot;
+        if (listener != null) {
+            listener.onBatteryChanged(snapshot, previous.isCharging() != snapshot.isCharging());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.voltcheck.app.utils;
 
+import java.nio.FloatBuffer;
 import java.util.List;
 
 /**
@@ -7,72 +8,45 @@ import java.util.List;
  */
 public class CalculationUtil {
     
+    /**
+     * Akumulasi list nilai ke RunningStats dalam satu pass
+     */
+    public static RunningStats accumulate(List<Float> values) {
+        RunningStats stats = new RunningStats();
+        if (values != null) {
+            for (int i = 0, n = values.size(); i < n; i++) {
+                stats.add(values.get(i));
+            }
+        }
+        return stats;
+    }
+    
     /**
      * Menghitung rata-rata dari list nilai
      */
     public static float calculateAverage(List<Float> values) {
-        if (values == null || values.isEmpty()) {
-            return 0f;
-        }
-        
-        float sum = 0f;
-        for (Float value : values) {
-            sum += value;
-        }
-        return sum / values.size();
+        return accumulate(values).getMean();
     }
     
     /**
      * Mencari nilai maksimum dari list
      */
     public static float calculateMax(List<Float> values) {
-        if (values == null || values.isEmpty()) {
-            return 0f;
-        }
-        
-        float max = values.get(0);
-        for (Float value : values) {
-            if (value > max) {
-                max = value;
-            }
-        }
-        return max;
+        return accumulate(values).getMax();
     }
     
     /**
      * Mencari nilai minimum dari list
      */
     public static float calculateMin(List<Float> values) {
-        if (values == null || values.isEmpty()) {
-            return 0f;
-        }
-        
-        float min = values.get(0);
-        for (Float value : values) {
-            if (value < min) {
-                min = value;
-            }
-        }
-        return min;
+        return accumulate(values).getMin();
     }
     
     /**
      * Menghitung standard deviation
      */
     public static float calculateStandardDeviation(List<Float> values) {
-        if (values == null || values.isEmpty()) {
-            return 0f;
-        }
-        
-        float mean = calculateAverage(values);
-        float sumSquaredDiff = 0f;
-        
-        for (Float value : values) {
-            float diff = value - mean;
-            sumSquaredDiff += diff * diff;
-        }
-        
-        return (float) Math.sqrt(sumSquaredDiff / values.size());
+        return accumulate(values).getStandardDeviation();
     }
     
     /**
@@ -80,43 +54,221 @@ public class CalculationUtil {
      * Stabilitas tinggi = variasi rendah
      */
     public static float calculateStability(List<Float> currentValues) {
-        if (currentValues == null || currentValues.isEmpty()) {
-            return 0f;
-        }
-        
-        float avg = calculateAverage(currentValues);
-        if (avg == 0) {
+        return calculateStability(accumulate(currentValues));
+    }
+    
+    /**
+     * Stabilitas dari akumulator yang sudah berjalan, O(1)
+     */
+    public static float calculateStability(RunningStats currentStats) {
+        if (currentStats.getCount() == 0 || currentStats.getMean() == 0) {
             return 0f;
         }
         
-        float stdDev = calculateStandardDeviation(currentValues);
-        float coefficientOfVariation = (stdDev / avg) * 100f;
-        
         // Stabilitas = 100% - coefficient of variation
         // Semakin rendah variasi, semakin tinggi stabilitas
-        float stability = 100f - coefficientOfVariation;
-        
         // Clamp antara 0-100
-        if (stability < 0) stability = 0;
-        if (stability > 100) stability = 100;
-        
-        return stability;
+        return clampPercent(100f - currentStats.getCoefficientOfVariation());
     }
     
     /**
      * Menghitung voltage drop (penurunan tegangan)
      */
     public static float calculateVoltageDrop(List<Float> voltageValues) {
-        if (voltageValues == null || voltageValues.isEmpty()) {
-            return 0f;
+        return calculateVoltageDrop(accumulate(voltageValues));
+    }
+    
+    /**
+     * Voltage drop dari akumulator yang sudah berjalan, O(1)
+     */
+    public static float calculateVoltageDrop(RunningStats voltageStats) {
+        return voltageStats.getMax() - voltageStats.getMin();
+    }
+    
+    /**
+     * Voltage drop dalam jendela waktu [from, to) dari index tegangan, O(log n)
+     */
+    public static float calculateVoltageDrop(RangeAggregateIndex voltageIndex, long from, long to) {
+        RangeAggregateIndex.Aggregate aggregate = new RangeAggregateIndex.Aggregate();
+        voltageIndex.aggregate(from, to, aggregate);
+        return aggregate.count > 0 ? aggregate.max - aggregate.min : 0f;
+    }
+    
+    /**
+     * Ringkasan statistik hasil summarize() (immutable)
+     */
+    public static final class Summary {
+        public final int count;
+        public final float mean;
+        public final float min;
+        public final float max;
+        public final float standardDeviation;
+        
+        Summary(int count, float mean, float min, float max, float standardDeviation) {
+            this.count = count;
+            this.mean = mean;
+            this.min = min;
+            this.max = max;
+            this.standardDeviation = standardDeviation;
         }
         
-        float max = calculateMax(voltageValues);
-        float min = calculateMin(voltageValues);
+        /**
+         * Coefficient of variation dalam persen, 0 jika mean 0
+         */
+        public float getCoefficientOfVariation() {
+            return mean != 0 ? standardDeviation / mean * 100f : 0f;
+        }
+    }
+    
+    private static final Summary EMPTY_SUMMARY = new Summary(0, 0f, 0f, 0f, 0f);
+    
+    /**
+     * Semua agregat data[from, to) dalam satu traversal tanpa boxing.
+     * Sum dihitung relatif terhadap elemen pertama agar variance tetap presisi
+     * untuk nilai besar dengan variasi kecil (misalnya tegangan).
+     */
+    public static Summary summarize(float[] data, int from, int to) {
+        checkRange(data, from, to);
+        int count = to - from;
+        if (count == 0) {
+            return EMPTY_SUMMARY;
+        }
+        
+        float shift = data[from];
+        float min = shift;
+        float max = shift;
+        double sum = 0;
+        double sumSquares = 0;
+        for (int i = from; i < to; i++) {
+            float value = data[i];
+            double d = value - shift;
+            sum += d;
+            sumSquares += d * d;
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
         
+        double meanOffset = sum / count;
+        double variance = sumSquares / count - meanOffset * meanOffset;
+        return new Summary(count, (float) (shift + meanOffset), min, max,
+                variance > 0 ? (float) Math.sqrt(variance) : 0f);
+    }
+    
+    public static Summary summarize(float[] data) {
+        return summarize(data, 0, data.length);
+    }
+    
+    /**
+     * Ringkasan elemen tersisa (position sampai limit) tanpa mengubah position buffer
+     */
+    public static Summary summarize(FloatBuffer buffer) {
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset();
+            return summarize(buffer.array(), offset + buffer.position(), offset + buffer.limit());
+        }
+        
+        int count = buffer.remaining();
+        if (count == 0) {
+            return EMPTY_SUMMARY;
+        }
+        float[] chunk = new float[Math.min(count, 1024)];
+        FloatBuffer view = buffer.duplicate();
+        RunningStats stats = new RunningStats();
+        while (view.hasRemaining()) {
+            int n = Math.min(chunk.length, view.remaining());
+            view.get(chunk, 0, n);
+            for (int i = 0; i < n; i++) {
+                stats.add(chunk[i]);
+            }
+        }
+        return new Summary(count, stats.getMean(), stats.getMin(), stats.getMax(),
+                stats.getStandardDeviation());
+    }
+    
+    public static float calculateAverage(float[] data, int from, int to) {
+        checkRange(data, from, to);
+        if (to == from) return 0f;
+        double sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += data[i];
+        }
+        return (float) (sum / (to - from));
+    }
+    
+    public static float calculateMax(float[] data, int from, int to) {
+        checkRange(data, from, to);
+        if (to == from) return 0f;
+        float max = data[from];
+        for (int i = from + 1; i < to; i++) {
+            if (data[i] > max) max = data[i];
+        }
+        return max;
+    }
+    
+    public static float calculateMin(float[] data, int from, int to) {
+        checkRange(data, from, to);
+        if (to == from) return 0f;
+        float min = data[from];
+        for (int i = from + 1; i < to; i++) {
+            if (data[i] < min) min = data[i];
+        }
+        return min;
+    }
+    
+    public static float calculateStandardDeviation(float[] data, int from, int to) {
+        return summarize(data, from, to).standardDeviation;
+    }
+    
+    public static float calculateStability(float[] currentValues, int from, int to) {
+        return calculateStability(summarize(currentValues, from, to));
+    }
+    
+    /**
+     * Stabilitas dari Summary yang sudah dihitung
+     */
+    public static float calculateStability(Summary currentSummary) {
+        if (currentSummary.count == 0 || currentSummary.mean == 0) {
+            return 0f;
+        }
+        return clampPercent(100f - currentSummary.getCoefficientOfVariation());
+    }
+    
+    /**
+     * Stabilitas dari mean dan standard deviation yang sudah diketahui (misal agregat SQL)
+     */
+    public static float calculateStability(float mean, float standardDeviation) {
+        if (mean == 0) {
+            return 0f;
+        }
+        return clampPercent(100f - standardDeviation / mean * 100f);
+    }
+    
+    public static float calculateVoltageDrop(float[] voltageValues, int from, int to) {
+        checkRange(voltageValues, from, to);
+        if (to == from) return 0f;
+        float min = voltageValues[from];
+        float max = min;
+        for (int i = from + 1; i < to; i++) {
+            float value = voltageValues[i];
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
         return max - min;
     }
     
+    private static float clampPercent(float value) {
+        if (value < 0) return 0;
+        if (value > 100) return 100;
+        return value;
+    }
+    
+    private static void checkRange(float[] data, int from, int to) {
+        if (from < 0 || to > data.length || from > to) {
+            throw new ArrayIndexOutOfBoundsException(
+                    "Range [" + from + ", " + to + ") out of bounds for length " + data.length);
+        }
+    }
+    
     /**
      * Generate kesimpulan kualitas charger/kabel
      */
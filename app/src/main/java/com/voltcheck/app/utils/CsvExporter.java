@@ -0,0 +1,214 @@
+package com.voltcheck.app.utils;
+
+import android.content.Context;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Ekspor seluruh log ke CSV secara streaming: record dibaca per halaman dari database
+ * dan langsung ditulis ke OutputStream, tanpa List atau String per baris.
+ * Angka dan timestamp diformat ke satu buffer char[] yang dipakai ulang.
+ * Jalankan di background thread; cancel() boleh dipanggil dari thread mana pun.
+ */
+public final class CsvExporter {
+
+    private static final String HEADER = "timestamp,epoch_ms,current_ma,voltage_v,temperature_c,level,status\n";
+    private static final int WRITER_BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 4096;             // Laporkan progress tiap 4096 baris
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * Dipanggil di thread ekspor
+     */
+    public interface ProgressListener {
+        void onProgress(long rowsWritten, long totalRows);
+    }
+
+    private final Context context;
+    private volatile boolean cancelled = false;
+
+    public CsvExporter(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Tulis CSV ke output; stream ditutup setelah selesai
+     *
+     * @return jumlah baris data yang ditulis, atau -1 jika dibatalkan
+     */
+    public long export(OutputStream output, ProgressListener listener) throws IOException {
+        long totalRows = BatteryDataLogger.getDataCount(context);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8),
+                WRITER_BUFFER_SIZE)) {
+            writer.write(HEADER);
+            RowWriter rows = new RowWriter(writer, listener, totalRows);
+            try {
+                BatteryDataLogger.visitDataLog(context, rows);
+            } catch (AbortException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                return -1;
+            }
+            if (listener != null) {
+                listener.onProgress(rows.count, Math.max(totalRows, rows.count));
+            }
+            return rows.count;
+        }
+    }
+
+    /**
+     * Membawa IOException atau pembatalan keluar dari visitor
+     */
+    private static final class AbortException extends RuntimeException {
+        AbortException(IOException cause) {
+            super(cause);
+        }
+
+        AbortException() {
+            super("Export cancelled");
+        }
+    }
+
+    private final class RowWriter implements BatteryDataLogger.Visitor {
+        private final Writer writer;
+        private final ProgressListener listener;
+        private final long totalRows;
+        private final char[] line = new char[128];
+        private final TimeZone timeZone = TimeZone.getDefault();
+        private final Calendar calendar = Calendar.getInstance(timeZone);
+        private final char[] datePrefix = new char[11]; // "yyyy-MM-dd "
+        private long currentDay = Long.MIN_VALUE;
+        long count = 0;
+
+        RowWriter(Writer writer, ProgressListener listener, long totalRows) {
+            this.writer = writer;
+            this.listener = listener;
+            this.totalRows = totalRows;
+        }
+
+        @Override
+        public void onRecord(long timestamp, float current, float voltage, float temperature, int level, int status) {
+            if (cancelled) {
+                throw new AbortException();
+            }
+            int pos = appendTimestamp(timestamp);
+            line[pos++] = ',';
+            pos = appendLong(line, pos, timestamp);
+            line[pos++] = ',';
+            pos = appendFixed(line, pos, current, 1);
+            line[pos++] = ',';
+            pos = appendFixed(line, pos, voltage, 3);
+            line[pos++] = ',';
+            pos = appendFixed(line, pos, temperature, 1);
+            line[pos++] = ',';
+            pos = appendLong(line, pos, level);
+            line[pos++] = ',';
+            pos = appendStatus(line, pos, status);
+            line[pos++] = '\n';
+            try {
+                writer.write(line, 0, pos);
+            } catch (IOException e) {
+                throw new AbortException(e);
+            }
+
+            count++;
+            if (listener != null && count % PROGRESS_INTERVAL == 0) {
+                listener.onProgress(count, Math.max(totalRows, count));
+            }
+        }
+
+        /**
+         * yyyy-MM-dd HH:mm:ss waktu lokal. Bagian tanggal hanya dihitung ulang saat hari berganti;
+         * offset zona diambil per baris sehingga pergantian DST tetap benar.
+         */
+        private int appendTimestamp(long timestamp) {
+            long local = timestamp + timeZone.getOffset(timestamp);
+            long day = Math.floorDiv(local, MILLIS_PER_DAY);
+            if (day != currentDay) {
+                currentDay = day;
+                calendar.setTimeInMillis(timestamp);
+                int p = appendPadded(datePrefix, 0, calendar.get(Calendar.YEAR), 4);
+                datePrefix[p++] = '-';
+                p = appendPadded(datePrefix, p, calendar.get(Calendar.MONTH) + 1, 2);
+                datePrefix[p++] = '-';
+                p = appendPadded(datePrefix, p, calendar.get(Calendar.DAY_OF_MONTH), 2);
+                datePrefix[p] = ' ';
+            }
+            System.arraycopy(datePrefix, 0, line, 0, datePrefix.length);
+            int seconds = (int) (Math.floorMod(local, MILLIS_PER_DAY) / 1000);
+            int pos = appendPadded(line, datePrefix.length, seconds / 3600, 2);
+            line[pos++] = ':';
+            pos = appendPadded(line, pos, seconds / 60 % 60, 2);
+            line[pos++] = ':';
+            return appendPadded(line, pos, seconds % 60, 2);
+        }
+    }
+
+    /**
+     * Tulis value dengan jumlah desimal tetap (dibulatkan), tanpa alokasi
+     */
+    static int appendFixed(char[] buffer, int pos, float value, int decimals) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            return pos;
+        }
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        long scaled = Math.round(Math.abs((double) value) * scale);
+        if (value < 0 && scaled != 0) {
+            buffer[pos++] = '-';
+        }
+        pos = appendLong(buffer, pos, scaled / scale);
+        if (decimals > 0) {
+            buffer[pos++] = '.';
+            pos = appendPadded(buffer, pos, scaled % scale, decimals);
+        }
+        return pos;
+    }
+
+    static int appendLong(char[] buffer, int pos, long value) {
+        if (value < 0) {
+            buffer[pos++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        return appendPadded(buffer, pos, value, digits);
+    }
+
+    /**
+     * Tulis value non-negatif dengan tepat width digit (diisi nol di depan)
+     */
+    private static int appendPadded(char[] buffer, int pos, long value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+
+    private static int appendStatus(char[] buffer, int pos, int status) {
+        String label = BatteryDataLogger.getStatusLabel(status); // Konstanta, tanpa alokasi
+        label.getChars(0, label.length(), buffer, pos);
+        return pos + label.length();
+    }
+}
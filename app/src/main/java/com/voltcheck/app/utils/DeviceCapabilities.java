@@ -0,0 +1,207 @@
+package com.voltcheck.app.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.BatteryManager;
+import android.os.Build;
+import android.util.Log;
+
+/**
+ * Profil kemampuan sensor baterai perangkat, di-probe sekali lalu disimpan.
+ * Mencatat property BatteryManager yang didukung, unit arus µA (jika sudah terbukti) dan design capacity
+ * dari PowerProfile. Probe ulang hanya jika Build.FINGERPRINT atau versi profil berubah.
+ * Arus dilaporkan absolut; arah charge/discharge diambil dari status baterai.
+ */
+public final class DeviceCapabilities {
+
+    private static final String TAG = "DeviceCapabilities";
+    private static final String PREFS_NAME = "VoltCheckDeviceProfile";
+    // Naikkan jika aturan probe berubah agar profil lama di-probe ulang
+    private static final int PROFILE_VERSION = 3;
+
+    public static final int UNIT_UNKNOWN = 0;
+    public static final int UNIT_MICROAMPERE = 1;
+
+    // Di atas ini pasti µA; ponsel tidak menarik > 10 A
+    private static final int MICROAMPERE_THRESHOLD = 10000;
+
+    private static DeviceCapabilities instance;
+
+    private final SharedPreferences prefs;
+    private final boolean currentNowSupported;
+    private final boolean currentAverageSupported;
+    private final boolean chargeCounterSupported;
+    private final int designCapacity;  // mAh, 0 jika tidak diketahui
+
+    // Dipelajari dari pembacaan, diakses dari thread sampling dan UI
+    private volatile int currentUnit;
+
+    private DeviceCapabilities(SharedPreferences prefs, boolean currentNowSupported,
+                               boolean currentAverageSupported, boolean chargeCounterSupported,
+                               int designCapacity, int currentUnit) {
+        this.prefs = prefs;
+        this.currentNowSupported = currentNowSupported;
+        this.currentAverageSupported = currentAverageSupported;
+        this.chargeCounterSupported = chargeCounterSupported;
+        this.designCapacity = designCapacity;
+        this.currentUnit = currentUnit;
+    }
+
+    /**
+     * Profil perangkat; dimuat dari preferences atau di-probe pada pemanggilan pertama
+     */
+    public static synchronized DeviceCapabilities get(Context context) {
+        if (instance == null) {
+            instance = load(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private static DeviceCapabilities load(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (Build.FINGERPRINT.equals(prefs.getString("fingerprint", null))
+                && prefs.getInt("profile_version", 0) == PROFILE_VERSION) {
+            return new DeviceCapabilities(prefs,
+                    prefs.getBoolean("current_now", false),
+                    prefs.getBoolean("current_average", false),
+                    prefs.getBoolean("charge_counter", false),
+                    prefs.getInt("design_capacity", 0),
+                    prefs.getInt("current_unit", UNIT_UNKNOWN));
+        }
+
+        BatteryManager batteryManager = (BatteryManager) context.getSystemService(Context.BATTERY_SERVICE);
+        boolean currentNow = isSupported(batteryManager, BatteryManager.BATTERY_PROPERTY_CURRENT_NOW);
+        boolean currentAverage = isSupported(batteryManager, BatteryManager.BATTERY_PROPERTY_CURRENT_AVERAGE);
+        boolean chargeCounter = isSupported(batteryManager, BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER);
+        int designCapacity = probeDesignCapacity(context);
+
+        prefs.edit()
+                .putString("fingerprint", Build.FINGERPRINT)
+                .putInt("profile_version", PROFILE_VERSION)
+                .putBoolean("current_now", currentNow)
+                .putBoolean("current_average", currentAverage)
+                .putBoolean("charge_counter", chargeCounter)
+                .putInt("design_capacity", designCapacity)
+                .putInt("current_unit", UNIT_UNKNOWN)
+                .remove("sign_convention")
+                .apply();
+        Log.d(TAG, "Probed: current_now=" + currentNow + ", current_average=" + currentAverage
+                + ", charge_counter=" + chargeCounter + ", design_capacity=" + designCapacity);
+
+        return new DeviceCapabilities(prefs, currentNow, currentAverage, chargeCounter,
+                designCapacity, UNIT_UNKNOWN);
+    }
+
+    /**
+     * Property tidak didukung jika mengembalikan Integer.MIN_VALUE atau melempar exception.
+     * Nilai 0 tetap dianggap didukung (baterai penuh/idle); fallback 0 ditangani per pembacaan.
+     */
+    private static boolean isSupported(BatteryManager batteryManager, int property) {
+        try {
+            int value = batteryManager.getIntProperty(property);
+            return value != Integer.MIN_VALUE;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Design capacity via reflection PowerProfile, hanya dijalankan saat probe
+     */
+    private static int probeDesignCapacity(Context context) {
+        try {
+            Class<?> powerProfileClass = Class.forName("com.android.internal.os.PowerProfile");
+            Object powerProfile = powerProfileClass.getConstructor(Context.class).newInstance(context);
+            double batteryCapacity = (double) powerProfileClass.getMethod("getBatteryCapacity").invoke(powerProfile);
+            return (int) batteryCapacity;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Membaca arus absolut dalam mA dari property yang didukung.
+     * Unit dipelajari dari pembacaan lalu disimpan ke profil.
+     *
+     * @return 0 jika tidak ada property arus yang didukung
+     */
+    public float readCurrent(BatteryManager batteryManager) {
+        try {
+            int raw = 0;
+            if (currentNowSupported) {
+                raw = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_NOW);
+            }
+            if ((raw == 0 || raw == Integer.MIN_VALUE) && currentAverageSupported) {
+                raw = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CURRENT_AVERAGE);
+            }
+            if (raw == 0 || raw == Integer.MIN_VALUE) {
+                return 0f;
+            }
+
+            learnUnit(raw);
+            return toMilliampere(raw);
+        } catch (Exception e) {
+            return 0f;
+        }
+    }
+
+    private float toMilliampere(int raw) {
+        float current = Math.abs((float) raw);
+        switch (currentUnit) {
+            case UNIT_MICROAMPERE:
+                return current / 1000f;
+            default:
+                // Belum terbukti µA, tebak per pembacaan (tidak disimpan)
+                return current > MICROAMPERE_THRESHOLD ? current / 1000f : current;
+        }
+    }
+
+    /**
+     * Hanya bukti positif yang disimpan: pembacaan di atas threshold pasti µA.
+     * Pembacaan kecil tidak membuktikan mA (perangkat µA yang penuh/idle juga mendekati 0).
+     */
+    private synchronized void learnUnit(int raw) {
+        if (currentUnit != UNIT_UNKNOWN || Math.abs((long) raw) <= MICROAMPERE_THRESHOLD) return;
+        currentUnit = UNIT_MICROAMPERE;
+        prefs.edit().putInt("current_unit", currentUnit).apply();
+    }
+
+    /**
+     * Kapasitas untuk ditampilkan: charge counter jika didukung, jika tidak design capacity
+     *
+     * @return mAh, 0 jika tidak diketahui
+     */
+    public int readCapacity(BatteryManager batteryManager) {
+        if (chargeCounterSupported) {
+            try {
+                int chargeCounter = batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CHARGE_COUNTER);
+                if (chargeCounter > 0) return chargeCounter / 1000;
+            } catch (Exception e) {}
+        }
+        return designCapacity;
+    }
+
+    public boolean isCurrentSupported() {
+        return currentNowSupported || currentAverageSupported;
+    }
+
+    public boolean isCurrentNowSupported() {
+        return currentNowSupported;
+    }
+
+    public boolean isCurrentAverageSupported() {
+        return currentAverageSupported;
+    }
+
+    public boolean isChargeCounterSupported() {
+        return chargeCounterSupported;
+    }
+
+    public int getDesignCapacity() {
+        return designCapacity;
+    }
+
+    public int getCurrentUnit() {
+        return currentUnit;
+    }
+}
@@ -0,0 +1,130 @@
+package com.voltcheck.app.utils;
+
+/**
+ * Downsampling deret waktu pada array primitif untuk chart jarak panjang.
+ * Hasilnya berupa indeks titik yang dipilih (urut naik), sehingga pemanggil bisa mengambil
+ * nilai dari array mana pun (timestamp, channel lain) tanpa menyalin data.
+ * x harus urut naik.
+ */
+public final class Downsampler {
+
+    private Downsampler() {}
+
+    /**
+     * Largest-Triangle-Three-Buckets: pilih maxPoints titik dari [from, to) yang menjaga bentuk
+     * kurva (misal kurva CC/CV tegangan). Titik pertama dan terakhir selalu ikut.
+     *
+     * @param out minimal berukuran min(maxPoints, to - from)
+     * @return jumlah indeks yang ditulis ke out
+     */
+    public static int largestTriangleThreeBuckets(float[] x, float[] y, int from, int to, int maxPoints, int[] out) {
+        int n = to - from;
+        if (n <= 0) return 0;
+        if (maxPoints >= n || n <= 2) {
+            return copyAll(from, to, out);
+        }
+        if (maxPoints < 3) {
+            out[0] = from;
+            if (maxPoints == 1) return 1;
+            out[1] = to - 1;
+            return 2;
+        }
+
+        // Bucket di antara titik pertama dan terakhir
+        double bucketSize = (double) (n - 2) / (maxPoints - 2);
+        int count = 0;
+        int selected = from;
+        out[count++] = selected;
+
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int rangeStart = from + 1 + (int) (bucket * bucketSize);
+            int rangeEnd = from + 1 + (int) ((bucket + 1) * bucketSize);
+
+            // Rata-rata bucket berikutnya sebagai titik ketiga segitiga
+            int nextStart = rangeEnd;
+            int nextEnd = Math.min(from + 1 + (int) ((bucket + 2) * bucketSize), to);
+            if (bucket == maxPoints - 3) nextEnd = to;
+            double avgX = 0;
+            double avgY = 0;
+            int nextCount = Math.max(nextEnd - nextStart, 1);
+            for (int i = nextStart; i < nextStart + nextCount && i < to; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextCount;
+            avgY /= nextCount;
+
+            double ax = x[selected];
+            double ay = y[selected];
+            double maxArea = -1;
+            int maxIndex = rangeStart;
+            for (int i = rangeStart; i < rangeEnd; i++) {
+                // Dua kali luas segitiga (a, i, rata-rata bucket berikutnya)
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    maxIndex = i;
+                }
+            }
+            out[count++] = maxIndex;
+            selected = maxIndex;
+        }
+        out[count++] = to - 1;
+        return count;
+    }
+
+    /**
+     * Min/max per bucket waktu: setiap bucket (lebar sama di sumbu x) menyumbang titik minimum
+     * dan maksimumnya sesuai urutan kemunculan, sehingga lonjakan dan penurunan arus sesingkat
+     * apa pun tetap terlihat. Titik pertama dan terakhir selalu ikut.
+     *
+     * @param out minimal berukuran 2 * buckets + 2
+     * @return jumlah indeks yang ditulis ke out
+     */
+    public static int minMax(float[] x, float[] y, int from, int to, int buckets, int[] out) {
+        int n = to - from;
+        if (n <= 0) return 0;
+        if (n <= 2 * buckets + 2 || buckets < 1) {
+            return copyAll(from, to, out);
+        }
+
+        double x0 = x[from];
+        double span = x[to - 1] - x0;
+        int count = 0;
+        out[count++] = from;
+
+        int i = from + 1;
+        int last = to - 1;
+        while (i < last) {
+            int bucket = bucketOf(x[i], x0, span, buckets);
+            int minIndex = i;
+            int maxIndex = i;
+            int j = i + 1;
+            while (j < last && bucketOf(x[j], x0, span, buckets) == bucket) {
+                if (y[j] < y[minIndex]) minIndex = j;
+                if (y[j] > y[maxIndex]) maxIndex = j;
+                j++;
+            }
+            int first = Math.min(minIndex, maxIndex);
+            int second = Math.max(minIndex, maxIndex);
+            out[count++] = first;
+            if (second != first) out[count++] = second;
+            i = j;
+        }
+        out[count++] = last;
+        return count;
+    }
+
+    private static int bucketOf(float x, double x0, double span, int buckets) {
+        if (span <= 0) return 0;
+        int bucket = (int) ((x - x0) / span * buckets);
+        return Math.min(bucket, buckets - 1);
+    }
+
+    private static int copyAll(int from, int to, int[] out) {
+        for (int i = from; i < to; i++) {
+            out[i - from] = i;
+        }
+        return to - from;
+    }
+}
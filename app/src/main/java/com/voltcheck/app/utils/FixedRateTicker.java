@@ -0,0 +1,191 @@
+package com.voltcheck.app.utils;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+/**
+ * Scheduler fixed-rate di atas Handler. Setiap tick dijadwalkan ke deadline absolut
+ * (bukan postDelayed setelah pekerjaan selesai) sehingga periode tidak bergeser oleh
+ * durasi tick. Tick yang terlewat dilompati, tidak diantrikan.
+ * Lateness dan jitter periode dicatat sebagai metrik.
+ */
+public class FixedRateTicker {
+
+    public interface Callback {
+        /**
+         * @param tickNanos SystemClock.elapsedRealtimeNanos saat tick dijalankan
+         */
+        void onTick(long tickNanos);
+    }
+
+    /**
+     * Snapshot metrik ticker (immutable)
+     */
+    public static final class Metrics {
+        public final long ticks;
+        public final long missedTicks;
+        public final float meanLatenessMillis;
+        public final float maxLatenessMillis;
+        public final float periodJitterMillis;   // standard deviation selisih periode aktual vs target
+
+        Metrics(long ticks, long missedTicks, float meanLatenessMillis, float maxLatenessMillis,
+                float periodJitterMillis) {
+            this.ticks = ticks;
+            this.missedTicks = missedTicks;
+            this.meanLatenessMillis = meanLatenessMillis;
+            this.maxLatenessMillis = maxLatenessMillis;
+            this.periodJitterMillis = periodJitterMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(java.util.Locale.US,
+                    "ticks=%d missed=%d lateness(mean=%.1f ms, max=%.1f ms) jitter=%.1f ms",
+                    ticks, missedTicks, meanLatenessMillis, maxLatenessMillis, periodJitterMillis);
+        }
+    }
+
+    private final Handler handler;
+    private final Callback callback;
+
+    private long periodMillis;
+    private long nextDeadline;      // SystemClock.uptimeMillis, basis Handler.postAtTime
+    private long lastTickNanos = 0;
+    private long lastPeriodMillis;
+    private boolean running = false;
+    private boolean inTick = false;
+
+    // Metrik
+    private long ticks = 0;
+    private long missedTicks = 0;
+    private double latenessSum = 0;
+    private double latenessMax = 0;
+    private long jitterCount = 0;
+    private double jitterMean = 0;
+    private double jitterM2 = 0;
+
+    private final Runnable tickRunnable = new Runnable() {
+        @Override
+        public void run() {
+            onDeadline();
+        }
+    };
+
+    public FixedRateTicker(Handler handler, Callback callback) {
+        this.handler = handler;
+        this.callback = callback;
+    }
+
+    /**
+     * Mulai ticking; tick pertama langsung dijalankan
+     */
+    public void start(long periodMillis) {
+        stop();
+        this.periodMillis = periodMillis;
+        this.lastPeriodMillis = periodMillis;
+        this.running = true;
+        this.lastTickNanos = 0;
+        this.nextDeadline = SystemClock.uptimeMillis();
+        handler.postAtTime(tickRunnable, nextDeadline);
+    }
+
+    public void stop() {
+        running = false;
+        handler.removeCallbacks(tickRunnable);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getPeriod() {
+        return periodMillis;
+    }
+
+    /**
+     * Ubah periode. Deadline berikutnya dihitung ulang dari tick terakhir
+     */
+    public void setPeriod(long periodMillis) {
+        if (!running || inTick || periodMillis == this.periodMillis) {
+            // Di dalam callback: deadline berikutnya dihitung onDeadline dengan periode baru
+            this.periodMillis = periodMillis;
+            return;
+        }
+        long lastDeadline = nextDeadline - this.periodMillis;
+        this.periodMillis = periodMillis;
+        nextDeadline = Math.max(lastDeadline + periodMillis, SystemClock.uptimeMillis());
+        handler.removeCallbacks(tickRunnable);
+        handler.postAtTime(tickRunnable, nextDeadline);
+    }
+
+    /**
+     * Jalankan tick sekarang (misalnya saat ada event) dan mulai grid deadline baru dari sini
+     */
+    public void tickNow() {
+        if (!running) return;
+        handler.removeCallbacks(tickRunnable);
+        nextDeadline = SystemClock.uptimeMillis();
+        lastTickNanos = 0; // Periode ke tick ini bukan periode terjadwal, jangan dihitung jitter
+        handler.postAtTime(tickRunnable, nextDeadline);
+    }
+
+    public Metrics getMetrics() {
+        float meanLateness = ticks > 0 ? (float) (latenessSum / ticks) : 0f;
+        float jitter = jitterCount > 1 ? (float) Math.sqrt(jitterM2 / jitterCount) : 0f;
+        return new Metrics(ticks, missedTicks, meanLateness, (float) latenessMax, jitter);
+    }
+
+    public void resetMetrics() {
+        ticks = 0;
+        missedTicks = 0;
+        latenessSum = 0;
+        latenessMax = 0;
+        jitterCount = 0;
+        jitterMean = 0;
+        jitterM2 = 0;
+    }
+
+    private void onDeadline() {
+        if (!running) return;
+
+        long now = SystemClock.uptimeMillis();
+        long tickNanos = SystemClock.elapsedRealtimeNanos();
+        long lateness = now - nextDeadline;
+
+        // Metrik lateness
+        ticks++;
+        latenessSum += lateness;
+        if (lateness > latenessMax) latenessMax = lateness;
+
+        // Metrik jitter: periode aktual dibanding periode target
+        if (lastTickNanos != 0) {
+            double actualPeriod = (tickNanos - lastTickNanos) / 1_000_000.0;
+            double deviation = actualPeriod - lastPeriodMillis;
+            jitterCount++;
+            double delta = deviation - jitterMean;
+            jitterMean += delta / jitterCount;
+            jitterM2 += delta * (deviation - jitterMean);
+        }
+        lastTickNanos = tickNanos;
+        lastPeriodMillis = periodMillis;
+
+        inTick = true;
+        try {
+            callback.onTick(tickNanos);
+        } finally {
+            inTick = false;
+        }
+        if (!running) return;
+
+        // Deadline berikutnya di grid absolut; lompati tick yang sudah lewat
+        nextDeadline += periodMillis;
+        long after = SystemClock.uptimeMillis();
+        if (nextDeadline < after) {
+            long skipped = (after - nextDeadline) / periodMillis + 1;
+            missedTicks += skipped;
+            nextDeadline += skipped * periodMillis;
+            lastTickNanos = 0;
+        }
+        handler.postAtTime(tickRunnable, nextDeadline);
+    }
+}
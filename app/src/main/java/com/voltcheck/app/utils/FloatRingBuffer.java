@@ -0,0 +1,144 @@
+package com.voltcheck.app.utils;
+
+/**
+ * Ring buffer float primitif berkapasitas tetap untuk sliding window sample.
+ * Push O(1) tanpa alokasi dan tanpa boxing; sum dan sum of squares dijaga berjalan
+ * sehingga mean/variance window tidak perlu iterasi ulang.
+ * Indeks 0 adalah sample paling lama.
+ */
+public class FloatRingBuffer {
+
+    // Hitung ulang agregat secara berkala agar error pembulatan tidak menumpuk
+    private static final int RESUM_INTERVAL = 4096;
+
+    private final float[] data;
+    private int head = 0;   // Posisi tulis berikutnya
+    private int size = 0;
+    private double sum = 0;
+    private double sumSquares = 0;
+    private int pushesSinceResum = 0;
+
+    public FloatRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.data = new float[capacity];
+    }
+
+    /**
+     * Tambah sample; jika penuh, sample paling lama dibuang
+     */
+    public void push(float value) {
+        if (size == data.length) {
+            float evicted = data[head];
+            sum -= evicted;
+            sumSquares -= (double) evicted * evicted;
+        } else {
+            size++;
+        }
+        data[head] = value;
+        sum += value;
+        sumSquares += (double) value * value;
+        head = (head + 1) % data.length;
+
+        if (++pushesSinceResum >= RESUM_INTERVAL) {
+            resum();
+        }
+    }
+
+    /**
+     * Sample ke-i, 0 = paling lama
+     */
+    public float get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return data[physicalIndex(index)];
+    }
+
+    /**
+     * Sample terbaru
+     */
+    public float last() {
+        return get(size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return data.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == data.length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        sum = 0;
+        sumSquares = 0;
+        pushesSinceResum = 0;
+    }
+
+    public float sum() {
+        return (float) sum;
+    }
+
+    public float mean() {
+        return size > 0 ? (float) (sum / size) : 0f;
+    }
+
+    /**
+     * Variance populasi window
+     */
+    public float variance() {
+        if (size == 0) return 0f;
+        double mean = sum / size;
+        double variance = sumSquares / size - mean * mean;
+        return variance > 0 ? (float) variance : 0f;
+    }
+
+    public float standardDeviation() {
+        return (float) Math.sqrt(variance());
+    }
+
+    /**
+     * Salin isi buffer (urut dari paling lama) ke dst, tanpa alokasi
+     *
+     * @return jumlah elemen yang disalin
+     */
+    public int copyTo(float[] dst, int offset) {
+        int start = physicalIndex(0);
+        int firstPart = Math.min(size, data.length - start);
+        System.arraycopy(data, start, dst, offset, firstPart);
+        System.arraycopy(data, 0, dst, offset + firstPart, size - firstPart);
+        return size;
+    }
+
+    private int physicalIndex(int index) {
+        int start = head - size;
+        if (start < 0) start += data.length;
+        int physical = start + index;
+        return physical >= data.length ? physical - data.length : physical;
+    }
+
+    private void resum() {
+        double newSum = 0;
+        double newSumSquares = 0;
+        for (int i = 0; i < size; i++) {
+            float value = data[physicalIndex(i)];
+            newSum += value;
+            newSumSquares += (double) value * value;
+        }
+        sum = newSum;
+        sumSquares = newSumSquares;
+        pushesSinceResum = 0;
+    }
+}
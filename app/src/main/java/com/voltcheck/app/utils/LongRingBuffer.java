@@ -0,0 +1,68 @@
+package com.voltcheck.app.utils;
+
+/**
+ * Ring buffer long primitif berkapasitas tetap, pasangan FloatRingBuffer untuk timestamp.
+ * Push O(1) tanpa alokasi. Indeks 0 adalah nilai paling lama.
+ */
+public class LongRingBuffer {
+
+    private final long[] data;
+    private int head = 0;   // Posisi tulis berikutnya
+    private int size = 0;
+
+    public LongRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.data = new long[capacity];
+    }
+
+    /**
+     * Tambah nilai; jika penuh, nilai paling lama dibuang
+     */
+    public void push(long value) {
+        data[head] = value;
+        head = (head + 1) % data.length;
+        if (size < data.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Nilai ke-i, 0 = paling lama
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        int start = head - size;
+        if (start < 0) start += data.length;
+        int physical = start + index;
+        return data[physical >= data.length ? physical - data.length : physical];
+    }
+
+    public long first() {
+        return get(0);
+    }
+
+    public long last() {
+        return get(size - 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return data.length;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
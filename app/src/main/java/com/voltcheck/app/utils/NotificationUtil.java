@@ -8,10 +8,14 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
 
+import java.util.Locale;
+
 import androidx.core.app.NotificationCompat;
 
+import com.voltcheck.app.HistoryActivity;
 import com.voltcheck.app.MainActivity;
 import com.voltcheck.app.R;
+import com.voltcheck.app.data.SessionStats;
 
 /**
  * Utility class untuk manajemen notifikasi
@@ -25,6 +29,7 @@ public class NotificationUtil {
     
     public static final int NOTIFICATION_ID_FOREGROUND = 1001;
     public static final int NOTIFICATION_ID_ALERT = 1002;
+    public static final int NOTIFICATION_ID_SESSION = 1003;
     
     /**
      * Membuat notification channels (diperlukan untuk Android O+)
@@ -302,4 +307,40 @@ public class NotificationUtil {
         
         manager.notify(NOTIFICATION_ID_ALERT, notification);
     }
+    
+    /**
+     * Mengirim ringkasan sesi charging setelah charger dicabut
+     */
+    public static void sendChargingSessionSummary(Context context, SessionStats session) {
+        Intent intent = new Intent(context, HistoryActivity.class);
+        PendingIntent pendingIntent = PendingIntent.getActivity(
+                context,
+                0,
+                intent,
+                PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT
+        );
+        
+        NotificationManager manager = context.getSystemService(NotificationManager.class);
+        
+        long minutes = session.getDurationMillis() / 60000;
+        String summary = String.format(Locale.getDefault(), "%d%% → %d%% • %d menit • %.0f mAh",
+                session.startLevel, session.endLevel, minutes, session.chargeMah);
+        String details = String.format(Locale.getDefault(),
+                "%s\nRata-rata %.0f mA, puncak %.0f mA\nStabilitas %.0f%% • Suhu maks %.1f°C • %.0f mWh",
+                summary, session.avgCurrent, session.maxCurrent,
+                session.getStability(), session.maxTemperature, session.energyMwh);
+        
+        Notification notification = new NotificationCompat.Builder(context, CHANNEL_ID_ALERTS)
+                .setContentTitle("📊 Ringkasan Sesi Charging")
+                .setContentText(summary)
+                .setStyle(new NotificationCompat.BigTextStyle().bigText(details))
+                .setSmallIcon(R.drawable.ic_notification)
+                .setContentIntent(pendingIntent)
+                .setAutoCancel(true)
+                .setOnlyAlertOnce(true)
+                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                .build();
+        
+        manager.notify(NOTIFICATION_ID_SESSION, notification);
+    }
 }
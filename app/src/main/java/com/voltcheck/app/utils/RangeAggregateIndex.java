@@ -0,0 +1,170 @@
+package com.voltcheck.app.utils;
+
+import java.util.Arrays;
+
+/**
+ * Segment tree min/max/sum/count di atas deret waktu yang urut naik. Setiap leaf bisa berupa
+ * satu sample atau satu bucket yang sudah diagregasi (misal rollup 1 menit/1 jam), sehingga
+ * chart bisa memakai tier yang sesuai untuk tiap level zoom.
+ * Query satu rentang O(log n); membagi [from, to) menjadi N bucket O(N log n), tanpa memindai leaf.
+ */
+public final class RangeAggregateIndex {
+
+    private final long[] times;     // Waktu mulai setiap leaf, urut naik
+    private final int size;
+    private final int leafBase;     // Pangkat dua >= size
+    private final int[] count;
+    private final double[] sum;
+    private final float[] min;
+    private final float[] max;
+
+    /**
+     * Hasil agregasi satu rentang
+     */
+    public static final class Aggregate {
+        public int count;
+        public double sum;
+        public float min;
+        public float max;
+
+        public float getMean() {
+            return count > 0 ? (float) (sum / count) : 0f;
+        }
+
+        void reset() {
+            count = 0;
+            sum = 0;
+            min = Float.MAX_VALUE;
+            max = -Float.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Index dari leaf yang sudah diagregasi
+     *
+     * @param counts jumlah sample per leaf; sums = mean x count
+     */
+    public RangeAggregateIndex(long[] times, int[] counts, double[] sums, float[] mins, float[] maxs, int size) {
+        this.times = Arrays.copyOf(times, size);
+        this.size = size;
+        int base = 1;
+        while (base < size) base <<= 1;
+        this.leafBase = base;
+        this.count = new int[2 * base];
+        this.sum = new double[2 * base];
+        this.min = new float[2 * base];
+        this.max = new float[2 * base];
+        Arrays.fill(min, Float.MAX_VALUE);
+        Arrays.fill(max, -Float.MAX_VALUE);
+
+        for (int i = 0; i < size; i++) {
+            if (i > 0 && times[i] < times[i - 1]) {
+                throw new IllegalArgumentException("Times must be ascending at index " + i);
+            }
+            count[base + i] = counts[i];
+            sum[base + i] = sums[i];
+            min[base + i] = mins[i];
+            max[base + i] = maxs[i];
+        }
+        for (int node = base - 1; node >= 1; node--) {
+            int left = 2 * node;
+            int right = left + 1;
+            count[node] = count[left] + count[right];
+            sum[node] = sum[left] + sum[right];
+            min[node] = Math.min(min[left], min[right]);
+            max[node] = Math.max(max[left], max[right]);
+        }
+    }
+
+    /**
+     * Index dari sample mentah (satu leaf per sample)
+     */
+    public static RangeAggregateIndex ofSamples(long[] times, float[] values, int size) {
+        int[] counts = new int[size];
+        double[] sums = new double[size];
+        Arrays.fill(counts, 1);
+        for (int i = 0; i < size; i++) {
+            sums[i] = values[i];
+        }
+        return new RangeAggregateIndex(times, counts, sums, values, values, size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getStartTime() {
+        return size > 0 ? times[0] : 0;
+    }
+
+    public long getEndTime() {
+        return size > 0 ? times[size - 1] : 0;
+    }
+
+    /**
+     * Agregat semua leaf dengan waktu di [from, to)
+     */
+    public void aggregate(long from, long to, Aggregate out) {
+        aggregateLeaves(lowerBound(from), lowerBound(to), out);
+    }
+
+    /**
+     * Bagi [from, to) menjadi buckets bucket sama lebar. Bucket kosong punya count 0.
+     *
+     * @param out minimal berukuran buckets; elemen null diisi objek baru
+     */
+    public void query(long from, long to, int buckets, Aggregate[] out) {
+        long span = to - from;
+        int leaf = lowerBound(from);
+        for (int b = 0; b < buckets; b++) {
+            long bucketEnd = b == buckets - 1 ? to : from + span * (b + 1) / buckets;
+            int nextLeaf = lowerBound(bucketEnd);
+            if (out[b] == null) out[b] = new Aggregate();
+            aggregateLeaves(leaf, nextLeaf, out[b]);
+            leaf = nextLeaf;
+        }
+    }
+
+    /**
+     * Agregat leaf [fromLeaf, toLeaf), iteratif dari bawah ke atas
+     */
+    private void aggregateLeaves(int fromLeaf, int toLeaf, Aggregate out) {
+        out.reset();
+        int left = fromLeaf + leafBase;
+        int right = toLeaf + leafBase;
+        while (left < right) {
+            if ((left & 1) == 1) merge(left++, out);
+            if ((right & 1) == 1) merge(--right, out);
+            left >>= 1;
+            right >>= 1;
+        }
+    }
+
+    private void merge(int node, Aggregate out) {
+        out.count += count[node];
+        out.sum += sum[node];
+        if (min[node] < out.min) out.min = min[node];
+        if (max[node] > out.max) out.max = max[node];
+    }
+
+    /**
+     * Indeks leaf pertama dengan waktu >= time
+     */
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
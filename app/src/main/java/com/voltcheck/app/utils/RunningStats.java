@@ -0,0 +1,106 @@
+package com.voltcheck.app.utils;
+
+/**
+ * Akumulator statistik inkremental (Welford). Count, mean, variance, min, max dan
+ * coefficient of variation diperbarui O(1) per sample tanpa menyimpan history.
+ * remove() membalik add() untuk mean/variance (varian windowed); min/max tidak bisa
+ * dibalik, gunakan WindowedStats untuk sliding window lengkap.
+ */
+public class RunningStats {
+
+    private long count = 0;
+    private double mean = 0;
+    private double m2 = 0;      // Jumlah kuadrat selisih terhadap mean
+    private float min = Float.MAX_VALUE;
+    private float max = -Float.MAX_VALUE;
+
+    public void add(float value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) min = value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Hapus sample yang sebelumnya di-add (hanya mempengaruhi count, mean, variance)
+     */
+    public void remove(float value) {
+        if (count <= 1) {
+            count = 0;
+            mean = 0;
+            m2 = 0;
+            return;
+        }
+        double oldMean = mean;
+        count--;
+        mean = (oldMean * (count + 1) - value) / count;
+        m2 -= (value - oldMean) * (value - mean);
+        if (m2 < 0) m2 = 0;
+    }
+
+    /**
+     * Gabungkan akumulator lain (formula paralel Chan), misalnya untuk rollup
+     */
+    public void merge(RunningStats other) {
+        if (other.count == 0) return;
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        if (other.min < min) min = other.min;
+        if (other.max > max) max = other.max;
+    }
+
+    public void clear() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Float.MAX_VALUE;
+        max = -Float.MAX_VALUE;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public float getMean() {
+        return (float) mean;
+    }
+
+    /**
+     * Variance populasi
+     */
+    public float getVariance() {
+        return count > 0 ? (float) (m2 / count) : 0f;
+    }
+
+    public float getStandardDeviation() {
+        return (float) Math.sqrt(getVariance());
+    }
+
+    public float getMin() {
+        return count > 0 ? min : 0f;
+    }
+
+    public float getMax() {
+        return count > 0 ? max : 0f;
+    }
+
+    /**
+     * Coefficient of variation dalam persen, 0 jika mean 0
+     */
+    public float getCoefficientOfVariation() {
+        return mean != 0 ? (float) (Math.sqrt(m2 / count) / mean * 100.0) : 0f;
+    }
+}
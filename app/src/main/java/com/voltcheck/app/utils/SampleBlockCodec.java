@@ -0,0 +1,354 @@
+package com.voltcheck.app.utils;
+
+import java.util.Arrays;
+
+/**
+ * Encoding blok sample ala Gorilla untuk history jangka panjang.
+ * Timestamp: delta-of-delta; current/voltage/temperature: XOR float terhadap nilai sebelumnya;
+ * level dan status: 1 bit jika sama, selain itu varint zigzag dari selisihnya;
+ * session id: 1 bit jika sama, selain itu 64 bit.
+ * Sample 1 Hz yang stabil butuh sekitar 6-8 byte, dibanding ~150 byte per entry JSON lama.
+ *
+ * Layout blok: version (8 bit), jumlah sample (32 bit), lalu bit stream sample.
+ */
+public final class SampleBlockCodec {
+
+    private static final int VERSION = 1;
+
+    private SampleBlockCodec() {}
+
+    /**
+     * Encoder satu blok; panggil add() per sample lalu finish()
+     */
+    public static final class Encoder {
+        private final BitWriter out = new BitWriter();
+        private int count = 0;
+
+        private long previousTimestamp;
+        private long previousDelta;
+        private long previousSession;
+        private int previousLevel;
+        private int previousStatus;
+        private final FloatChannel current = new FloatChannel();
+        private final FloatChannel voltage = new FloatChannel();
+        private final FloatChannel temperature = new FloatChannel();
+
+        public Encoder() {
+            out.write(VERSION, 8);
+            out.write(0, 32); // Jumlah sample, diisi di finish()
+        }
+
+        public void add(long timestamp, long sessionId, float currentValue, float voltageValue,
+                        float temperatureValue, int level, int status) {
+            if (count == 0) {
+                out.write(timestamp, 64);
+                out.write(sessionId, 64);
+                writeVarint(out, zigzag(level));
+                writeVarint(out, zigzag(status));
+            } else {
+                long delta = timestamp - previousTimestamp;
+                writeDeltaOfDelta(delta - previousDelta);
+                previousDelta = delta;
+
+                if (sessionId == previousSession) {
+                    out.writeBit(0);
+                } else {
+                    out.writeBit(1);
+                    out.write(sessionId, 64);
+                }
+                writeSmallInt(level - previousLevel);
+                writeSmallInt(status - previousStatus);
+            }
+            current.encode(out, currentValue, count == 0);
+            voltage.encode(out, voltageValue, count == 0);
+            temperature.encode(out, temperatureValue, count == 0);
+
+            previousTimestamp = timestamp;
+            previousSession = sessionId;
+            previousLevel = level;
+            previousStatus = status;
+            count++;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Byte blok yang sudah lengkap
+         */
+        public byte[] finish() {
+            byte[] data = out.toByteArray();
+            data[1] = (byte) (count >>> 24);
+            data[2] = (byte) (count >>> 16);
+            data[3] = (byte) (count >>> 8);
+            data[4] = (byte) count;
+            return data;
+        }
+
+        private void writeDeltaOfDelta(long dod) {
+            if (dod == 0) {
+                out.writeBit(0);
+            } else if (dod >= -64 && dod <= 63) {
+                out.write(0b10, 2);
+                out.write(dod, 7);
+            } else if (dod >= -256 && dod <= 255) {
+                out.write(0b110, 3);
+                out.write(dod, 9);
+            } else if (dod >= -2048 && dod <= 2047) {
+                out.write(0b1110, 4);
+                out.write(dod, 12);
+            } else {
+                out.write(0b1111, 4);
+                out.write(dod, 64);
+            }
+        }
+
+        private void writeSmallInt(int delta) {
+            if (delta == 0) {
+                out.writeBit(0);
+            } else {
+                out.writeBit(1);
+                writeVarint(out, zigzag(delta));
+            }
+        }
+    }
+
+    /**
+     * Decoder streaming satu blok; panggil next() lalu baca field publik
+     */
+    public static final class Decoder {
+        private final BitReader in;
+        private final int count;
+        private int index = 0;
+        private long delta;
+        private final FloatChannel currentChannel = new FloatChannel();
+        private final FloatChannel voltageChannel = new FloatChannel();
+        private final FloatChannel temperatureChannel = new FloatChannel();
+
+        public long timestamp;
+        public long sessionId;
+        public float current;
+        public float voltage;
+        public float temperature;
+        public int level;
+        public int status;
+
+        public Decoder(byte[] data) {
+            in = new BitReader(data);
+            int version = (int) in.read(8);
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported block version: " + version);
+            }
+            count = (int) in.read(32);
+        }
+
+        public int size() {
+            return count;
+        }
+
+        /**
+         * Decode sample berikutnya
+         *
+         * @return false jika blok sudah habis
+         */
+        public boolean next() {
+            if (index >= count) {
+                return false;
+            }
+            if (index == 0) {
+                timestamp = in.read(64);
+                sessionId = in.read(64);
+                level = unzigzag(readVarint(in));
+                status = unzigzag(readVarint(in));
+            } else {
+                delta += readDeltaOfDelta();
+                timestamp += delta;
+                if (in.readBit() == 1) {
+                    sessionId = in.read(64);
+                }
+                level += readSmallInt();
+                status += readSmallInt();
+            }
+            current = currentChannel.decode(in, index == 0);
+            voltage = voltageChannel.decode(in, index == 0);
+            temperature = temperatureChannel.decode(in, index == 0);
+            index++;
+            return true;
+        }
+
+        private long readDeltaOfDelta() {
+            if (in.readBit() == 0) return 0;
+            if (in.readBit() == 0) return in.readSigned(7);
+            if (in.readBit() == 0) return in.readSigned(9);
+            if (in.readBit() == 0) return in.readSigned(12);
+            return in.read(64);
+        }
+
+        private int readSmallInt() {
+            return in.readBit() == 0 ? 0 : unzigzag(readVarint(in));
+        }
+    }
+
+    /**
+     * State XOR untuk satu channel float
+     */
+    private static final class FloatChannel {
+        private int previousBits;
+        private int previousLeading = Integer.MAX_VALUE;
+        private int previousTrailing = 0;
+
+        void encode(BitWriter out, float value, boolean first) {
+            int bits = Float.floatToRawIntBits(value);
+            if (first) {
+                out.write(bits, 32);
+                previousBits = bits;
+                return;
+            }
+            int xor = bits ^ previousBits;
+            previousBits = bits;
+            if (xor == 0) {
+                out.writeBit(0);
+                return;
+            }
+            out.writeBit(1);
+            int leading = Math.min(Integer.numberOfLeadingZeros(xor), 31);
+            int trailing = Integer.numberOfTrailingZeros(xor);
+            if (previousLeading != Integer.MAX_VALUE && leading >= previousLeading && trailing >= previousTrailing) {
+                // Bit bermakna muat di window sebelumnya
+                out.writeBit(0);
+                out.write(xor >>> previousTrailing, 32 - previousLeading - previousTrailing);
+            } else {
+                int meaningful = 32 - leading - trailing;
+                out.writeBit(1);
+                out.write(leading, 5);
+                out.write(meaningful - 1, 5);
+                out.write(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+
+        float decode(BitReader in, boolean first) {
+            if (first) {
+                previousBits = (int) in.read(32);
+                return Float.intBitsToFloat(previousBits);
+            }
+            if (in.readBit() == 1) {
+                if (in.readBit() == 1) {
+                    previousLeading = (int) in.read(5);
+                    int meaningful = (int) in.read(5) + 1;
+                    previousTrailing = 32 - previousLeading - meaningful;
+                }
+                int meaningful = 32 - previousLeading - previousTrailing;
+                int xor = (int) in.read(meaningful) << previousTrailing;
+                previousBits ^= xor;
+            }
+            return Float.intBitsToFloat(previousBits);
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(BitWriter out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80, 8);
+            value >>>= 7;
+        }
+        out.write(value, 8);
+    }
+
+    private static int readVarint(BitReader in) {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = (int) in.read(8);
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0 && shift < 35);
+        return value;
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer = new byte[256];
+        private long bitCount = 0;
+
+        void writeBit(int bit) {
+            write(bit, 1);
+        }
+
+        /**
+         * Tulis bitCount bit terbawah dari value, MSB dulu
+         */
+        void write(long value, int bits) {
+            ensureCapacity(bitCount + bits);
+            for (int i = bits - 1; i >= 0; ) {
+                int byteIndex = (int) (bitCount >>> 3);
+                int bitOffset = (int) (bitCount & 7);
+                int free = 8 - bitOffset;
+                int take = Math.min(free, i + 1);
+                int chunk = (int) ((value >>> (i + 1 - take)) & ((1 << take) - 1));
+                buffer[byteIndex] |= (byte) (chunk << (free - take));
+                bitCount += take;
+                i -= take;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, (int) ((bitCount + 7) >>> 3));
+        }
+
+        private void ensureCapacity(long bits) {
+            int bytes = (int) ((bits + 7) >>> 3);
+            if (bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(bytes, buffer.length * 2));
+            }
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] buffer;
+        private long position = 0;
+
+        BitReader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readBit() {
+            return (int) read(1);
+        }
+
+        long read(int bits) {
+            long value = 0;
+            for (int i = bits; i > 0; ) {
+                int byteIndex = (int) (position >>> 3);
+                if (byteIndex >= buffer.length) {
+                    throw new IllegalStateException("Block truncated");
+                }
+                int bitOffset = (int) (position & 7);
+                int available = 8 - bitOffset;
+                int take = Math.min(available, i);
+                int chunk = ((buffer[byteIndex] & 0xFF) >>> (available - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                position += take;
+                i -= take;
+            }
+            return value;
+        }
+
+        /**
+         * Baca nilai two's complement selebar bits
+         */
+        long readSigned(int bits) {
+            long value = read(bits);
+            return (value << (64 - bits)) >> (64 - bits);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.voltcheck.app.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Ring file berkapasitas tetap untuk sample terbaru (beberapa jam data 1 Hz), di-map dengan
+ * MappedByteBuffer. Append hanya menulis ke memori (tanpa syscall); halaman dirty di-flush
+ * oleh kernel sehingga isi ring tetap ada walau proses mati tanpa langkah flush.
+ *
+ * Header 64 byte: magic, version, record size, capacity, generation, cursor.
+ * cursor = total record yang pernah ditulis (record ke-n ada di slot n % capacity).
+ * generation dipakai sebagai seqlock: ganjil selama record sedang ditulis, naik 2 per append,
+ * sehingga reader (misal MainActivity dengan mapping sendiri) bisa mendeteksi tulisan bersamaan.
+ * Put/get MappedByteBuffer tidak punya urutan memori, jadi dalam satu proses akses header dan
+ * record juga dijaga LOCK; generation tetap dipakai untuk append yang terputus saat proses mati.
+ */
+public final class SampleRingFile {
+
+    public static final String FILE_NAME = "recent_samples.ring";
+    public static final int DEFAULT_CAPACITY = 4 * 60 * 60; // 4 jam pada 1 Hz
+
+    private static final int MAGIC = 0x56435247; // "VCRG"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 40;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_RECORD_SIZE = 8;
+    private static final int OFFSET_CAPACITY = 12;
+    private static final int OFFSET_GENERATION = 16;
+    private static final int OFFSET_CURSOR = 24;
+
+    private static final int READ_RETRIES = 3;
+
+    // Dipakai bersama semua mapping di proses ini (writer SamplingEngine dan reader MainActivity)
+    private static final Object LOCK = new Object();
+
+    /**
+     * Dipanggil untuk setiap record, urut dari yang paling lama
+     */
+    public interface Visitor {
+        void onRecord(long timestamp, long elapsedNanos, float current, float currentSmoothed,
+                      float voltage, float temperature, int level, int status);
+    }
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final boolean writable;
+
+    private SampleRingFile(MappedByteBuffer buffer, int capacity, boolean writable) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.writable = writable;
+    }
+
+    /**
+     * Map ring untuk ditulis; file dibuat/diformat ulang jika belum ada atau layout berbeda
+     */
+    public static SampleRingFile openWritable(File file, int capacity) throws IOException {
+        long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            FileChannel channel = raf.getChannel();
+            boolean exists = channel.size() == size;
+            if (!exists) {
+                channel.truncate(0);
+                raf.setLength(size);
+            }
+            // Mapping tetap valid setelah channel ditutup
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            SampleRingFile ring = new SampleRingFile(buffer, capacity, true);
+            if (!exists || !ring.hasValidHeader()) {
+                ring.format();
+            } else if ((buffer.getLong(OFFSET_GENERATION) & 1) != 0) {
+                // Proses mati di tengah append; record itu belum dihitung di cursor
+                buffer.putLong(OFFSET_GENERATION, buffer.getLong(OFFSET_GENERATION) + 1);
+            }
+            return ring;
+        }
+    }
+
+    /**
+     * Map ring yang sudah ada untuk dibaca saja
+     *
+     * @return null jika file belum ada atau tidak valid
+     */
+    public static SampleRingFile openReadOnly(File file) throws IOException {
+        if (!file.exists() || file.length() < HEADER_SIZE) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            int capacity = buffer.getInt(OFFSET_CAPACITY);
+            SampleRingFile ring = new SampleRingFile(buffer, capacity, false);
+            if (!ring.hasValidHeader() || raf.length() != HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+                return null;
+            }
+            return ring;
+        }
+    }
+
+    /**
+     * Tulis satu record ke slot berikutnya, menimpa yang paling lama jika penuh
+     */
+    public void append(long timestamp, long elapsedNanos, float current, float currentSmoothed,
+                       float voltage, float temperature, int level, int status) {
+        if (!writable) {
+            throw new IllegalStateException("Ring file is read-only");
+        }
+        synchronized (LOCK) {
+            long generation = buffer.getLong(OFFSET_GENERATION);
+            long cursor = buffer.getLong(OFFSET_CURSOR);
+            buffer.putLong(OFFSET_GENERATION, generation + 1);
+
+            int offset = slotOffset(cursor);
+            buffer.putLong(offset, timestamp);
+            buffer.putLong(offset + 8, elapsedNanos);
+            buffer.putFloat(offset + 16, current);
+            buffer.putFloat(offset + 20, currentSmoothed);
+            buffer.putFloat(offset + 24, voltage);
+            buffer.putFloat(offset + 28, temperature);
+            buffer.putShort(offset + 32, (short) level);
+            buffer.putShort(offset + 34, (short) status);
+
+            buffer.putLong(OFFSET_CURSOR, cursor + 1);
+            buffer.putLong(OFFSET_GENERATION, generation + 2);
+        }
+    }
+
+    /**
+     * Baca maksimal maxRecords record terbaru. Snapshot disalin dulu lalu divalidasi
+     * dengan generation; jika ada append bersamaan, baca ulang.
+     *
+     * @return jumlah record yang dikirim ke visitor
+     */
+    public int readLatest(int maxRecords, Visitor visitor) {
+        for (int attempt = 0; attempt < READ_RETRIES; attempt++) {
+            byte[] copy;
+            int count;
+            synchronized (LOCK) {
+                long generation = buffer.getLong(OFFSET_GENERATION);
+                if ((generation & 1) != 0) {
+                    // Writer di proses lain sedang append
+                    Thread.yield();
+                    continue;
+                }
+                long cursor = buffer.getLong(OFFSET_CURSOR);
+                count = (int) Math.min(Math.min(cursor, capacity), maxRecords);
+                if (count <= 0) {
+                    return 0;
+                }
+
+                copy = new byte[count * RECORD_SIZE];
+                int startSlot = (int) ((cursor - count) % capacity);
+                int firstPart = Math.min(count, capacity - startSlot);
+                ByteBuffer source = buffer.duplicate();
+                source.position(HEADER_SIZE + startSlot * RECORD_SIZE);
+                source.get(copy, 0, firstPart * RECORD_SIZE);
+                if (firstPart < count) {
+                    source.position(HEADER_SIZE);
+                    source.get(copy, firstPart * RECORD_SIZE, (count - firstPart) * RECORD_SIZE);
+                }
+
+                if (buffer.getLong(OFFSET_GENERATION) != generation) {
+                    continue;
+                }
+            }
+
+            ByteBuffer records = ByteBuffer.wrap(copy);
+            for (int i = 0; i < count; i++) {
+                visitor.onRecord(records.getLong(), records.getLong(), records.getFloat(), records.getFloat(),
+                        records.getFloat(), records.getFloat(), records.getShort(), records.getShort());
+                records.getInt(); // Padding
+            }
+            return count;
+        }
+        return 0;
+    }
+
+    /**
+     * Total record yang pernah ditulis
+     */
+    public long getCursor() {
+        synchronized (LOCK) {
+            return buffer.getLong(OFFSET_CURSOR);
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private int slotOffset(long index) {
+        return HEADER_SIZE + (int) (index % capacity) * RECORD_SIZE;
+    }
+
+    private boolean hasValidHeader() {
+        return buffer.getInt(OFFSET_MAGIC) == MAGIC
+                && buffer.getInt(OFFSET_VERSION) == VERSION
+                && buffer.getInt(OFFSET_RECORD_SIZE) == RECORD_SIZE
+                && buffer.getInt(OFFSET_CAPACITY) == capacity;
+    }
+
+    private void format() {
+        buffer.putInt(OFFSET_MAGIC, MAGIC);
+        buffer.putInt(OFFSET_VERSION, VERSION);
+        buffer.putInt(OFFSET_RECORD_SIZE, RECORD_SIZE);
+        buffer.putInt(OFFSET_CAPACITY, capacity);
+        buffer.putLong(OFFSET_GENERATION, 0);
+        buffer.putLong(OFFSET_CURSOR, 0);
+    }
+}
@@ -0,0 +1,103 @@
+package com.voltcheck.app.utils;
+
+/**
+ * Statistik sliding window berkapasitas tetap: mean/variance lewat Welford add/remove,
+ * min/max lewat monotonic deque. Semua operasi O(1) (amortized) dan tanpa alokasi.
+ */
+public class WindowedStats {
+
+    private final FloatRingBuffer window;
+    private final RunningStats stats = new RunningStats();
+
+    // Monotonic deque (ring) berisi nomor urut sample dan nilainya
+    private final long[] maxSeq;
+    private final float[] maxVal;
+    private final long[] minSeq;
+    private final float[] minVal;
+    private int maxHead, maxSize, minHead, minSize;
+    private long sequence = 0;
+
+    public WindowedStats(int capacity) {
+        window = new FloatRingBuffer(capacity);
+        maxSeq = new long[capacity];
+        maxVal = new float[capacity];
+        minSeq = new long[capacity];
+        minVal = new float[capacity];
+    }
+
+    public void push(float value) {
+        if (window.isFull()) {
+            stats.remove(window.get(0));
+        }
+        window.push(value);
+        stats.add(value);
+
+        long seq = sequence++;
+        long expired = seq - window.capacity();
+        int capacity = window.capacity();
+
+        // Max deque: buang nilai di belakang yang <= value, lalu yang sudah keluar window di depan
+        while (maxSize > 0 && maxVal[(maxHead + maxSize - 1) % capacity] <= value) maxSize--;
+        while (maxSize > 0 && maxSeq[maxHead] <= expired) {
+            maxHead = (maxHead + 1) % capacity;
+            maxSize--;
+        }
+        int maxTail = (maxHead + maxSize) % capacity;
+        maxSeq[maxTail] = seq;
+        maxVal[maxTail] = value;
+        maxSize++;
+
+        // Min deque
+        while (minSize > 0 && minVal[(minHead + minSize - 1) % capacity] >= value) minSize--;
+        while (minSize > 0 && minSeq[minHead] <= expired) {
+            minHead = (minHead + 1) % capacity;
+            minSize--;
+        }
+        int minTail = (minHead + minSize) % capacity;
+        minSeq[minTail] = seq;
+        minVal[minTail] = value;
+        minSize++;
+    }
+
+    public void clear() {
+        window.clear();
+        stats.clear();
+        maxHead = maxSize = minHead = minSize = 0;
+        sequence = 0;
+    }
+
+    public int size() {
+        return window.size();
+    }
+
+    public boolean isFull() {
+        return window.isFull();
+    }
+
+    public float getMean() {
+        return stats.getMean();
+    }
+
+    public float getVariance() {
+        return stats.getVariance();
+    }
+
+    public float getStandardDeviation() {
+        return stats.getStandardDeviation();
+    }
+
+    /**
+     * Coefficient of variation dalam persen
+     */
+    public float getCoefficientOfVariation() {
+        return stats.getCoefficientOfVariation();
+    }
+
+    public float getMin() {
+        return minSize > 0 ? minVal[minHead] : 0f;
+    }
+
+    public float getMax() {
+        return maxSize > 0 ? maxVal[maxHead] : 0f;
+    }
+}
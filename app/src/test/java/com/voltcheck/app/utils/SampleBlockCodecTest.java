@@ -0,0 +1,65 @@
+package com.voltcheck.app.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SampleBlockCodecTest {
+
+    // Tepat di dan tepat di luar batas setiap kelas delta-of-delta
+    private static final long[] DELTA_OF_DELTAS = {
+            0, 1, -1,
+            63, 64, -64, -65,
+            255, 256, -256, -257,
+            2047, 2048, -2048, -2049,
+            1000000, -1000000, 0
+    };
+
+    @Test
+    public void roundTripTimestampBoundaries() {
+        int size = DELTA_OF_DELTAS.length + 2;
+        long[] timestamps = new long[size];
+        timestamps[0] = 1700000000000L;
+        timestamps[1] = timestamps[0] + 1000000;  // Delta awal besar agar semua dod tetap maju
+        long delta = 1000000;
+        for (int i = 0; i < DELTA_OF_DELTAS.length; i++) {
+            delta += DELTA_OF_DELTAS[i];
+            timestamps[i + 2] = timestamps[i + 1] + delta;
+        }
+
+        SampleBlockCodec.Encoder encoder = new SampleBlockCodec.Encoder();
+        for (int i = 0; i < size; i++) {
+            encoder.add(timestamps[i], i < size / 2 ? 7 : 8, -1200.5f + i, 4.1f + i * 0.01f,
+                    30f + (i % 3), 50 + i, i % 2);
+        }
+
+        SampleBlockCodec.Decoder decoder = new SampleBlockCodec.Decoder(encoder.finish());
+        assertEquals(size, decoder.size());
+        for (int i = 0; i < size; i++) {
+            assertTrue(decoder.next());
+            assertEquals("timestamp " + i, timestamps[i], decoder.timestamp);
+            assertEquals(i < size / 2 ? 7 : 8, decoder.sessionId);
+            assertEquals(-1200.5f + i, decoder.current, 0f);
+            assertEquals(4.1f + i * 0.01f, decoder.voltage, 0f);
+            assertEquals(30f + (i % 3), decoder.temperature, 0f);
+            assertEquals(50 + i, decoder.level);
+            assertEquals(i % 2, decoder.status);
+        }
+        assertFalse(decoder.next());
+    }
+
+    @Test
+    public void roundTripSingleSample() {
+        SampleBlockCodec.Encoder encoder = new SampleBlockCodec.Encoder();
+        encoder.add(1234L, 1, 0f, 3.85f, 25.5f, 100, 5);
+
+        SampleBlockCodec.Decoder decoder = new SampleBlockCodec.Decoder(encoder.finish());
+        assertTrue(decoder.next());
+        assertEquals(1234L, decoder.timestamp);
+        assertEquals(3.85f, decoder.voltage, 0f);
+        assertEquals(100, decoder.level);
+        assertFalse(decoder.next());
+    }
+}